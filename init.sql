@@ -21,3 +21,20 @@ CREATE TABLE IF NOT EXISTS users (
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+CREATE TABLE IF NOT EXISTS rate_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    base_code VARCHAR(3) NOT NULL,
+    time_last_update_unix BIGINT NOT NULL,
+    time_next_update_unix BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (base_code, time_last_update_unix)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_snapshots_next_update ON rate_snapshots (time_next_update_unix);
+
+CREATE TABLE IF NOT EXISTS upstream_quota_usage (
+    period VARCHAR(7) PRIMARY KEY,
+    calls BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
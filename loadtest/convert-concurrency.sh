@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+#
+# Finds the highest concurrency main-service's POST /convert sustains within a latency/error SLO.
+# Run it once against a stack started with VIRTUAL_THREADS_ENABLED=false and once with true,
+# and compare the reported maxima (see loadtest/README.md).
+#
+# Requires: hey (https://github.com/rakyll/hey), curl, awk, sort.
+set -euo pipefail
+
+BASE_URL=${BASE_URL:-http://localhost:8080}
+USERNAME=${USERNAME:-user}
+PASSWORD=${PASSWORD:-password}
+FROM=${FROM:-USD}
+TO=${TO:-EUR}
+START=${START:-50}
+STEP=${STEP:-50}
+MAX=${MAX:-2000}
+DURATION=${DURATION:-30s}
+SLO_P99_MS=${SLO_P99_MS:-500}
+SLO_ERROR_RATE=${SLO_ERROR_RATE:-0.01}
+LABEL=${LABEL:-run}
+
+token=$(curl -sf -X POST "$BASE_URL/api/auth/login" -H 'Content-Type: application/json' \
+  -d "{\"username\":\"$USERNAME\",\"password\":\"$PASSWORD\"}" | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+if [[ -z "$token" ]]; then
+  echo "login as $USERNAME failed" >&2
+  exit 1
+fi
+
+body="{\"from\":\"$FROM\",\"to\":\"$TO\",\"amount\":100.00}"
+results=$(mktemp)
+trap 'rm -f "$results"' EXIT
+
+printf '%-8s %10s %10s %10s %8s\n' concurrency requests rps p99_ms errors
+sustained=0
+for (( c = START; c <= MAX; c += STEP )); do
+  hey -z "$DURATION" -c "$c" -m POST -T application/json \
+    -H "Authorization: Bearer $token" -d "$body" -o csv "$BASE_URL/convert" > "$results"
+
+  # hey's csv columns: response-time,DNS+dialup,DNS,Request-write,Response-delay,Response-read,status-code,offset
+  total=$(tail -n +2 "$results" | wc -l)
+  errors=$(tail -n +2 "$results" | awk -F, '$7 != 200' | wc -l)
+  p99=$(tail -n +2 "$results" | cut -d, -f1 | sort -g \
+    | awk -v n="$total" 'NR == (int(n * 0.99) > 0 ? int(n * 0.99) : 1) { printf "%.0f", $1 * 1000 }')
+  rps=$(awk -v n="$total" -v d="${DURATION%s}" 'BEGIN { printf "%.0f", n / d }')
+  p99=${p99:-0}
+
+  error_rate=$(awk -v e="$errors" -v n="$total" 'BEGIN { print (n == 0 ? 1 : e / n) }')
+  printf '%-8d %10d %10d %10d %8d\n' "$c" "$total" "$rps" "$p99" "$errors"
+
+  if (( total == 0 )) || (( p99 > SLO_P99_MS )) || awk -v r="$error_rate" -v s="$SLO_ERROR_RATE" 'BEGIN { exit !(r > s) }'; then
+    break
+  fi
+  sustained=$c
+done
+
+echo "$LABEL: max sustainable concurrency $sustained (p99 <= ${SLO_P99_MS}ms, error rate <= $SLO_ERROR_RATE)"
@@ -9,6 +9,11 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class MainServiceApplication {
 
     public static void main(String[] args) {
+        // Reactor picks its boundedElastic implementation before the context exists, so the switch behind
+        // spring.threads.virtual.enabled is read from the environment here too
+        if (Boolean.parseBoolean(System.getenv("VIRTUAL_THREADS_ENABLED"))) {
+            System.setProperty("reactor.schedulers.defaultBoundedElasticOnVirtualThreads", "true");
+        }
         SpringApplication.run(MainServiceApplication.class, args);
     }
 }
\ No newline at end of file
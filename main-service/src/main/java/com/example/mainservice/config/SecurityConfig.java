@@ -1,6 +1,7 @@
 package com.example.mainservice.config;
 
 import com.example.mainservice.security.JwtRequestFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -38,8 +39,11 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(authorize -> authorize
+                // Async results (e.g. /convert/async) are re-dispatched after the original request was authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/").permitAll() // Allow access to home page
                 .requestMatchers("/status").permitAll() // Allow status endpoint without authentication
+                .requestMatchers("/actuator/health/**").permitAll() // Liveness and readiness probes
                 .requestMatchers("/api/auth/login").permitAll() // Allow login endpoint
                 .requestMatchers("/api/auth/**").permitAll() // Allow authentication endpoints
                 // OpenAPI endpoints
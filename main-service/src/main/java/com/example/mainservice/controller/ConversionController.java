@@ -1,5 +1,6 @@
 package com.example.mainservice.controller;
 
+import com.example.mainservice.model.BatchConversionRequest;
 import com.example.mainservice.model.Conversion;
 import com.example.mainservice.model.ConversionRequest;
 import com.example.mainservice.model.ConversionResponse;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -45,6 +47,37 @@ public class ConversionController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Convert currency asynchronously", description = "Same as /convert, but the request thread is released "
+            + "while the exchange rate is fetched and the conversion is saved")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Conversion successful",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ConversionResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "503", description = "Rate service unavailable")
+    })
+    @PostMapping("/convert/async")
+    public Mono<ResponseEntity<ConversionResponse>> convertCurrencyAsync(@Valid @RequestBody ConversionRequest request) {
+        return conversionService.convertCurrencyAsync(request).map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Convert a batch of amounts", description = "Converts many amounts in one request. Each distinct "
+            + "currency pair's rate is fetched once and all conversions are saved together; results are returned in request order")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Conversions successful",
+                    content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = ConversionResponse.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid request or batch too large"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "503", description = "Rate service unavailable")
+    })
+    @PostMapping("/convert/batch")
+    public ResponseEntity<List<ConversionResponse>> convertBatch(@Valid @RequestBody BatchConversionRequest request) {
+        List<ConversionResponse> responses = conversionService.convertBatch(request.getConversions());
+        return ResponseEntity.ok(responses);
+    }
+
     @Operation(summary = "Get all conversions", description = "Retrieves all stored currency conversion records")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Conversions retrieved successfully", 
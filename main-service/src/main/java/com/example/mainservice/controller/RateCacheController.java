@@ -0,0 +1,89 @@
+package com.example.mainservice.controller;
+
+import com.example.mainservice.model.CachedRate;
+import com.example.mainservice.service.RateCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/rate-cache")
+@Tag(name = "Rate Cache", description = "Inspect and evict locally cached pair rates (admin only)")
+@SecurityRequirement(name = "bearerAuth")
+public class RateCacheController {
+
+    private final RateCache rateCache;
+
+    public RateCacheController(RateCache rateCache) {
+        this.rateCache = rateCache;
+    }
+
+    @Operation(summary = "List cached rates", description = "List every cached pair rate, soonest expiry first (admin only)")
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Cached rates retrieved successfully",
+            content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = CachedRate.class)))
+        ),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - requires admin role")
+    })
+    @GetMapping
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<List<CachedRate>> getCachedRates() {
+        return ResponseEntity.ok(rateCache.entries());
+    }
+
+    @Operation(summary = "Evict a cached rate", description = "Remove one pair from the rate cache (admin only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cached rate evicted"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - requires admin role"),
+        @ApiResponse(responseCode = "404", description = "Pair not cached")
+    })
+    @DeleteMapping("/{from}/{to}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> evictCachedRate(
+            @Parameter(description = "Source currency code", example = "USD", required = true)
+            @PathVariable String from,
+            @Parameter(description = "Target currency code", example = "EUR", required = true)
+            @PathVariable String to) {
+        String fromCurrency = from.toUpperCase(Locale.ROOT);
+        String toCurrency = to.toUpperCase(Locale.ROOT);
+        if (rateCache.evict(fromCurrency, toCurrency)) {
+            return ResponseEntity.ok(Map.of("message", "Cached rate evicted", "from", fromCurrency, "to", toCurrency));
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @Operation(summary = "Clear the rate cache", description = "Remove every cached pair rate (admin only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rate cache cleared"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - requires admin role")
+    })
+    @DeleteMapping
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> clearCachedRates() {
+        int evicted = rateCache.clear();
+        return ResponseEntity.ok(Map.of("message", "Rate cache cleared", "evicted", evicted));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.mainservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+@Schema(description = "Request to convert several amounts in one call")
+public class BatchConversionRequest {
+
+    @Schema(description = "Conversions to perform; results are returned in the same order", required = true)
+    @NotEmpty(message = "At least one conversion is required")
+    @Valid
+    private List<ConversionRequest> conversions;
+
+    public BatchConversionRequest() {
+    }
+
+    public BatchConversionRequest(List<ConversionRequest> conversions) {
+        this.conversions = conversions;
+    }
+
+    public List<ConversionRequest> getConversions() {
+        return conversions;
+    }
+
+    public void setConversions(List<ConversionRequest> conversions) {
+        this.conversions = conversions;
+    }
+}
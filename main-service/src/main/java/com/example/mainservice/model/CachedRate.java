@@ -0,0 +1,60 @@
+package com.example.mainservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "A currency pair rate held in main-service's local rate cache")
+public class CachedRate {
+
+    @Schema(description = "Source currency code", example = "USD")
+    private String from;
+
+    @Schema(description = "Target currency code", example = "EUR")
+    private String to;
+
+    @Schema(description = "Cached exchange rate", example = "0.85")
+    private BigDecimal rate;
+
+    @Schema(description = "When the entry expires, unix seconds", example = "1700003600")
+    private long expiresAt;
+
+    public CachedRate(String from, String to, BigDecimal rate, long expiresAt) {
+        this.from = from;
+        this.to = to;
+        this.rate = rate;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public BigDecimal getRate() {
+        return rate;
+    }
+
+    public void setRate(BigDecimal rate) {
+        this.rate = rate;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
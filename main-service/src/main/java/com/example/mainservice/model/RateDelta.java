@@ -0,0 +1,73 @@
+package com.example.mainservice.model;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Change to one rate table as pushed by rate-service on {@code GET /rates/stream}.
+ */
+public class RateDelta {
+    private String base;
+    private long lastUpdated;
+    private long nextUpdate;
+    private boolean full;
+    private long sequence;
+    private long previousSequence;
+    private Map<String, BigDecimal> rates;
+
+    public String getBase() {
+        return base;
+    }
+
+    public void setBase(String base) {
+        this.base = base;
+    }
+
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(long lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    public long getNextUpdate() {
+        return nextUpdate;
+    }
+
+    public void setNextUpdate(long nextUpdate) {
+        this.nextUpdate = nextUpdate;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public long getPreviousSequence() {
+        return previousSequence;
+    }
+
+    public void setPreviousSequence(long previousSequence) {
+        this.previousSequence = previousSequence;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public Map<String, BigDecimal> getRates() {
+        return rates;
+    }
+
+    public void setRates(Map<String, BigDecimal> rates) {
+        this.rates = rates;
+    }
+}
@@ -6,6 +6,9 @@ public class RateResponse {
     private String from;
     private String to;
     private BigDecimal rate;
+    private long lastUpdated;
+    private long nextUpdate;
+    private boolean stale;
 
     public String getFrom() {
         return from;
@@ -30,4 +33,28 @@ public class RateResponse {
     public void setRate(BigDecimal rate) {
         this.rate = rate;
     }
+
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(long lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    public long getNextUpdate() {
+        return nextUpdate;
+    }
+
+    public void setNextUpdate(long nextUpdate) {
+        this.nextUpdate = nextUpdate;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
 }
\ No newline at end of file
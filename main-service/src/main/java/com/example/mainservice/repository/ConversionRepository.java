@@ -3,6 +3,6 @@ package com.example.mainservice.repository;
 import com.example.mainservice.model.Conversion;
 import org.springframework.data.repository.CrudRepository;
 
-public interface ConversionRepository extends CrudRepository<Conversion, Long> {
-    // Spring Data JDBC will implement the basic CRUD operations
+public interface ConversionRepository extends CrudRepository<Conversion, Long>, ConversionRepositoryCustom {
+    // Spring Data JDBC will implement the basic CRUD operations; batch inserts come from ConversionRepositoryImpl
 }
\ No newline at end of file
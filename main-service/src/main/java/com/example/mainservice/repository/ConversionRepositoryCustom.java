@@ -0,0 +1,16 @@
+package com.example.mainservice.repository;
+
+import com.example.mainservice.model.Conversion;
+
+import java.util.List;
+
+/**
+ * Conversion writes that Spring Data JDBC's one-statement-per-entity {@code saveAll} cannot express.
+ */
+public interface ConversionRepositoryCustom {
+
+    /**
+     * Inserts all conversions in a single JDBC batch. Generated ids are not read back.
+     */
+    void insertAll(List<Conversion> conversions);
+}
@@ -0,0 +1,41 @@
+package com.example.mainservice.repository;
+
+import com.example.mainservice.model.Conversion;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link ConversionRepositoryCustom}, picked up by Spring Data as a fragment of
+ * {@link ConversionRepository}.
+ */
+public class ConversionRepositoryImpl implements ConversionRepositoryCustom {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO conversions (from_currency, to_currency, amount, converted_amount, rate, timestamp) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ConversionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<Conversion> conversions) {
+        if (conversions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, conversions, conversions.size(), (ps, conversion) -> {
+            ps.setString(1, conversion.getFromCurrency());
+            ps.setString(2, conversion.getToCurrency());
+            ps.setBigDecimal(3, conversion.getAmount());
+            ps.setBigDecimal(4, conversion.getConvertedAmount());
+            ps.setBigDecimal(5, conversion.getRate());
+            ps.setTimestamp(6, Timestamp.valueOf(conversion.getTimestamp()));
+        });
+    }
+}
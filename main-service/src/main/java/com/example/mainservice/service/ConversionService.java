@@ -6,40 +6,121 @@ import com.example.mainservice.model.ConversionResponse;
 import com.example.mainservice.model.RateResponse;
 import com.example.mainservice.repository.ConversionRepository;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 @Service
 public class ConversionService {
 
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d{1,18})");
+
     private final WebClient rateServiceClient;
     private final ConversionRepository conversionRepository;
+    private final LocalRateStore localRateStore;
+    private final RateCache rateCache;
+    private final ConversionWriter conversionWriter;
+    private final long defaultTtlSeconds;
+    private final int maxBatchSize;
+    private final int batchRateConcurrency;
 
     public ConversionService(
             WebClient rateServiceClient,
             ConversionRepository conversionRepository,
-            @Value("${rate-service.base-url:http://rate-service:8081}") String rateServiceBaseUrl) {
+            LocalRateStore localRateStore,
+            RateCache rateCache,
+            ConversionWriter conversionWriter,
+            @Value("${rate-service.base-url:http://rate-service:8081}") String rateServiceBaseUrl,
+            @Value("${rate-service.cache.default-ttl-seconds:60}") long defaultTtlSeconds,
+            @Value("${conversion.batch.max-size:1000}") int maxBatchSize,
+            @Value("${conversion.batch.rate-concurrency:8}") int batchRateConcurrency) {
         this.rateServiceClient = rateServiceClient;
         this.conversionRepository = conversionRepository;
+        this.localRateStore = localRateStore;
+        this.rateCache = rateCache;
+        this.conversionWriter = conversionWriter;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxBatchSize = maxBatchSize;
+        this.batchRateConcurrency = batchRateConcurrency;
     }
 
     public ConversionResponse convertCurrency(ConversionRequest request) {
         String fromCurrency = request.getFrom().toUpperCase();
         String toCurrency = request.getTo().toUpperCase();
-        BigDecimal amount = request.getAmount();
 
         // Fetch exchange rate from rate-service
-        RateResponse rateResponse = fetchExchangeRate(fromCurrency, toCurrency);
+        RateResponse rateResponse = fetchExchangeRate(fromCurrency, toCurrency).block();
+
+        return recordConversion(fromCurrency, toCurrency, request.getAmount(), rateResponse.getRate());
+    }
+
+    /**
+     * Non-blocking variant of {@link #convertCurrency}: the rate is fetched without parking the calling
+     * thread, and the conversion is saved on the bounded elastic scheduler since JDBC blocks.
+     */
+    public Mono<ConversionResponse> convertCurrencyAsync(ConversionRequest request) {
+        String fromCurrency = request.getFrom().toUpperCase();
+        String toCurrency = request.getTo().toUpperCase();
 
+        return fetchExchangeRate(fromCurrency, toCurrency)
+                .publishOn(Schedulers.boundedElastic())
+                .map(rateResponse -> recordConversion(fromCurrency, toCurrency, request.getAmount(), rateResponse.getRate()));
+    }
+
+    /**
+     * Converts many amounts at once. Each distinct currency pair's rate is resolved once, and all
+     * conversions are saved in a single JDBC batch.
+     * @return One response per request, in request order
+     */
+    public List<ConversionResponse> convertBatch(List<ConversionRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxBatchSize + " conversions");
+        }
+
+        Set<CurrencyPair> pairs = new LinkedHashSet<>();
+        for (ConversionRequest request : requests) {
+            pairs.add(new CurrencyPair(request.getFrom().toUpperCase(), request.getTo().toUpperCase()));
+        }
+
+        // Fetch each pair's rate once, a few at a time
+        Map<CurrencyPair, BigDecimal> rates = Flux.fromIterable(pairs)
+                .flatMap(pair -> fetchExchangeRate(pair.from(), pair.to())
+                        .map(rateResponse -> Map.entry(pair, rateResponse.getRate())), batchRateConcurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+
+        List<Conversion> conversions = new ArrayList<>(requests.size());
+        List<ConversionResponse> responses = new ArrayList<>(requests.size());
+        for (ConversionRequest request : requests) {
+            CurrencyPair pair = new CurrencyPair(request.getFrom().toUpperCase(), request.getTo().toUpperCase());
+            BigDecimal rate = rates.get(pair);
+            BigDecimal convertedAmount = convert(request.getAmount(), rate);
+            conversions.add(new Conversion(pair.from(), pair.to(), request.getAmount(), convertedAmount, rate));
+            responses.add(new ConversionResponse(pair.from(), pair.to(), request.getAmount(), convertedAmount, rate));
+        }
+        conversionRepository.insertAll(conversions);
+        return responses;
+    }
+
+    private ConversionResponse recordConversion(String fromCurrency, String toCurrency, BigDecimal amount, BigDecimal rate) {
         // Calculate converted amount
-        BigDecimal rate = rateResponse.getRate();
-        BigDecimal convertedAmount = amount.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal convertedAmount = convert(amount, rate);
 
         // Save conversion to database
         Conversion conversion = new Conversion(
@@ -49,7 +130,7 @@ public class ConversionService {
                 convertedAmount,
                 rate
         );
-        conversionRepository.save(conversion);
+        conversionWriter.write(conversion);
 
         // Return response
         return new ConversionResponse(
@@ -61,6 +142,10 @@ public class ConversionService {
         );
     }
 
+    private static BigDecimal convert(BigDecimal amount, BigDecimal rate) {
+        return amount.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+    }
+
     /**
      * Retrieves all stored currency conversions
      * @return List of all conversions
@@ -71,7 +156,26 @@ public class ConversionService {
                 .collect(Collectors.toList());
     }
 
-    private RateResponse fetchExchangeRate(String fromCurrency, String toCurrency) {
+    private Mono<RateResponse> fetchExchangeRate(String fromCurrency, String toCurrency) {
+        // Answer from the streamed local copy when it has the pair, otherwise ask rate-service
+        BigDecimal localRate = localRateStore.rate(fromCurrency, toCurrency);
+        if (localRate != null) {
+            RateResponse rateResponse = new RateResponse();
+            rateResponse.setFrom(fromCurrency);
+            rateResponse.setTo(toCurrency);
+            rateResponse.setRate(localRate);
+            return Mono.just(rateResponse);
+        }
+
+        BigDecimal cachedRate = rateCache.get(fromCurrency, toCurrency);
+        if (cachedRate != null) {
+            RateResponse rateResponse = new RateResponse();
+            rateResponse.setFrom(fromCurrency);
+            rateResponse.setTo(toCurrency);
+            rateResponse.setRate(cachedRate);
+            return Mono.just(rateResponse);
+        }
+
         return rateServiceClient
                 .get()
                 .uri(uriBuilder -> uriBuilder
@@ -80,7 +184,42 @@ public class ConversionService {
                         .queryParam("to", toCurrency)
                         .build())
                 .retrieve()
-                .bodyToMono(RateResponse.class)
-                .block();
+                .toEntity(RateResponse.class)
+                .flatMap(response -> {
+                    RateResponse rateResponse = response.getBody();
+                    if (rateResponse == null) {
+                        return Mono.error(new IllegalStateException("Empty rate response for " + fromCurrency + " to " + toCurrency));
+                    }
+                    rateCache.put(fromCurrency, toCurrency, rateResponse.getRate(), ttlSeconds(response));
+                    return Mono.just(rateResponse);
+                });
+    }
+
+    /**
+     * How long a {@code /rate} answer may be reused: its Cache-Control max-age, else the time until the
+     * {@code nextUpdate} it reports, else the default TTL. Stale answers are not reused.
+     */
+    private long ttlSeconds(ResponseEntity<RateResponse> response) {
+        RateResponse body = response.getBody();
+        if (body.isStale()) {
+            return 0;
+        }
+        String cacheControl = response.getHeaders().getCacheControl();
+        if (cacheControl != null) {
+            if (cacheControl.contains("no-cache") || cacheControl.contains("no-store")) {
+                return 0;
+            }
+            Matcher maxAge = MAX_AGE.matcher(cacheControl);
+            if (maxAge.find()) {
+                return Long.parseLong(maxAge.group(1));
+            }
+        }
+        if (body.getNextUpdate() > 0) {
+            return body.getNextUpdate() - Instant.now().getEpochSecond();
+        }
+        return defaultTtlSeconds;
+    }
+
+    private record CurrencyPair(String from, String to) {
     }
 }
\ No newline at end of file
@@ -0,0 +1,213 @@
+package com.example.mainservice.service;
+
+import com.example.mainservice.model.Conversion;
+import com.example.mainservice.repository.ConversionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Saves conversion records for {@link ConversionService}. With write-behind enabled, conversions are queued
+ * and a background thread inserts them in one JDBC batch once {@code batch-size} have accumulated or
+ * {@code flush-interval-ms} has passed since the first of them was queued, so requests do not wait for the
+ * INSERT. When the queue is full the caller waits up to {@code offer-timeout-ms} for room and then saves
+ * its conversion itself, which slows callers down to what the database keeps up with instead of dropping
+ * records. Queued conversions are flushed on shutdown. Disabled, every conversion is saved synchronously.
+ */
+@Component
+public class ConversionWriter {
+    private static final Logger logger = LoggerFactory.getLogger(ConversionWriter.class);
+
+    private final ConversionRepository conversionRepository;
+    private final boolean enabled;
+    private final BlockingQueue<Conversion> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final long shutdownTimeoutMs;
+
+    private final Timer flushLatency;
+    private final Counter overflows;
+    private final Counter failures;
+
+    // Writers hold the read lock from checking running until their conversion is queued, so once stop()
+    // has taken the write lock and cleared running, every queued conversion is visible to the drain
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread writer;
+
+    public ConversionWriter(
+            ConversionRepository conversionRepository,
+            MeterRegistry meterRegistry,
+            @Value("${conversion.write-behind.enabled:false}") boolean enabled,
+            @Value("${conversion.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${conversion.write-behind.batch-size:500}") int batchSize,
+            @Value("${conversion.write-behind.flush-interval-ms:50}") long flushIntervalMs,
+            @Value("${conversion.write-behind.offer-timeout-ms:100}") long offerTimeoutMs,
+            @Value("${conversion.write-behind.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.conversionRepository = conversionRepository;
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+
+        this.flushLatency = Timer.builder("conversion.writer.flush")
+                .description("Time taken to insert one batch of queued conversions")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.overflows = Counter.builder("conversion.writer.overflows")
+                .description("Conversions saved by the caller because the write-behind queue stayed full")
+                .register(meterRegistry);
+        this.failures = Counter.builder("conversion.writer.failures")
+                .description("Queued conversions that could not be saved")
+                .register(meterRegistry);
+        meterRegistry.gauge("conversion.writer.queue.depth", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "conversion-writer");
+        writer.start();
+    }
+
+    /**
+     * Saves the conversion, or queues it for the background writer when write-behind is enabled.
+     */
+    public void write(Conversion conversion) {
+        stateLock.readLock().lock();
+        try {
+            if (running) {
+                if (enqueue(conversion)) {
+                    return;
+                }
+                overflows.increment();
+            }
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        conversionRepository.save(conversion);
+    }
+
+    private boolean enqueue(Conversion conversion) {
+        try {
+            return queue.offer(conversion, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void stopAccepting() {
+        stateLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stops accepting conversions and waits up to {@code shutdown-timeout-ms} for the queued ones to be saved.
+     */
+    @PreDestroy
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        stopAccepting();
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.warn("Shutting down with {} conversions still queued", queue.size());
+            return;
+        }
+        // Nothing can be queued any more, so this only finds work if the writer exited early
+        drainRemaining();
+    }
+
+    private void drainLoop() {
+        List<Conversion> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Conversion first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Fill the batch until it is full or the first conversion has waited flush-interval-ms
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Conversion next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                stopAccepting();
+                flush(batch);
+                drainRemaining();
+                Thread.currentThread().interrupt();
+                return;
+            }
+            flush(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private void drainRemaining() {
+        List<Conversion> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private void flush(List<Conversion> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            flushLatency.record(() -> conversionRepository.insertAll(batch));
+        } catch (RuntimeException e) {
+            // Retry row by row so one bad record does not take the rest of the batch with it
+            logger.warn("Batch insert of {} conversions failed, saving them one by one: {}", batch.size(), e.getMessage());
+            for (Conversion conversion : batch) {
+                try {
+                    conversionRepository.save(conversion);
+                } catch (RuntimeException rowFailure) {
+                    failures.increment();
+                    logger.error("Dropping conversion {} to {} at {}: {}", conversion.getFromCurrency(),
+                            conversion.getToCurrency(), conversion.getTimestamp(), rowFailure.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.mainservice.service;
+
+import com.example.mainservice.model.RateDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of rate-service's rate tables, kept current from its update stream.
+ * Cross rates are derived the same way rate-service does it, from any table quoting both
+ * currencies, so a conversion answered locally gets the rate {@code /rate} would return.
+ * Tables past their next upstream update are ignored and the caller falls back to {@code /rate}.
+ * A delta that does not follow the held copy of its table means an update was missed, so the
+ * copy is dropped until the table is sent in full again.
+ * It stays empty unless the stream subscription is enabled.
+ */
+@Component
+public class LocalRateStore {
+
+    private final Map<String, RateTable> tables = new ConcurrentHashMap<>();
+    private final Clock clock;
+    private final MathContext mathContext;
+    private final long graceSeconds;
+
+    @Autowired
+    public LocalRateStore(
+            @Value("${rate-service.stream.rate-precision:12}") int ratePrecision,
+            @Value("${rate-service.stream.grace-seconds:120}") long graceSeconds) {
+        this(Clock.systemUTC(), ratePrecision, graceSeconds);
+    }
+
+    LocalRateStore(Clock clock, int ratePrecision, long graceSeconds) {
+        this.clock = clock;
+        this.mathContext = new MathContext(ratePrecision, RoundingMode.HALF_EVEN);
+        this.graceSeconds = graceSeconds;
+    }
+
+    /**
+     * Applies a full table or a delta.
+     * @return {@code false} if the delta does not apply to the held copy of its table, in which case the
+     *         copy is dropped and the stream must be resubscribed to get the table in full
+     */
+    public boolean apply(RateDelta delta) {
+        boolean[] applied = {true};
+        tables.compute(delta.getBase(), (base, current) -> {
+            if (!delta.isFull() && (current == null || current.sequence() != delta.getPreviousSequence())) {
+                // A delta is meaningless without the exact table it was computed against
+                applied[0] = false;
+                return null;
+            }
+            Map<String, BigDecimal> rates = delta.isFull() ? new HashMap<>() : new HashMap<>(current.rates());
+            rates.putAll(delta.getRates());
+            return new RateTable(Map.copyOf(rates), delta.getSequence(), delta.getNextUpdate());
+        });
+        return applied[0];
+    }
+
+    /**
+     * Returns the rate from one currency to another, or {@code null} when no current local table quotes both.
+     */
+    public BigDecimal rate(String fromCurrency, String toCurrency) {
+        long now = clock.instant().getEpochSecond();
+        for (RateTable table : tables.values()) {
+            if (now >= table.nextUpdate() + graceSeconds) {
+                continue;
+            }
+            BigDecimal fromRate = table.rates().get(fromCurrency);
+            BigDecimal toRate = table.rates().get(toCurrency);
+            if (fromRate != null && toRate != null) {
+                return toRate.divide(fromRate, mathContext);
+            }
+        }
+        return null;
+    }
+
+    public void clear() {
+        tables.clear();
+    }
+
+    private record RateTable(Map<String, BigDecimal> rates, long sequence, long nextUpdate) {
+    }
+}
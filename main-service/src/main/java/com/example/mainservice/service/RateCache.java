@@ -0,0 +1,136 @@
+package com.example.mainservice.service;
+
+import com.example.mainservice.model.CachedRate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of pair rates fetched from rate-service's {@code /rate}, so repeated conversions of the
+ * same pair skip the HTTP call. Each entry lives for the TTL rate-service advertised for it, capped at
+ * {@code max-ttl-seconds}. Lookups are lock-free; once {@code max-entries} is reached, expired entries
+ * are dropped and then those expiring soonest are evicted to make room.
+ */
+@Component
+public class RateCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Clock clock;
+    private final int maxEntries;
+    private final long maxTtlSeconds;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Autowired
+    public RateCache(
+            MeterRegistry meterRegistry,
+            @Value("${rate-service.cache.max-entries:1024}") int maxEntries,
+            @Value("${rate-service.cache.max-ttl-seconds:3600}") long maxTtlSeconds) {
+        this(meterRegistry, Clock.systemUTC(), maxEntries, maxTtlSeconds);
+    }
+
+    RateCache(MeterRegistry meterRegistry, Clock clock, int maxEntries, long maxTtlSeconds) {
+        this.clock = clock;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxTtlSeconds = maxTtlSeconds;
+
+        this.hits = Counter.builder("rate.cache.hits")
+                .description("Conversions answered from the local pair rate cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("rate.cache.misses")
+                .description("Conversions that had to ask rate-service for the pair rate")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("rate.cache.evictions")
+                .description("Unexpired pair rates evicted to keep the cache within max-entries")
+                .register(meterRegistry);
+        meterRegistry.gauge("rate.cache.size", entries, Map::size);
+    }
+
+    /**
+     * Returns the cached rate for the pair, or {@code null} if it is missing or expired.
+     */
+    public BigDecimal get(String fromCurrency, String toCurrency) {
+        Entry entry = entries.get(key(fromCurrency, toCurrency));
+        if (entry == null || clock.instant().getEpochSecond() >= entry.expiresAt()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.rate();
+    }
+
+    /**
+     * Caches a rate for {@code ttlSeconds}, capped at the configured maximum. Non-positive TTLs are not cached.
+     */
+    public void put(String fromCurrency, String toCurrency, BigDecimal rate, long ttlSeconds) {
+        long ttl = Math.min(ttlSeconds, maxTtlSeconds);
+        if (ttl <= 0 || rate == null) {
+            return;
+        }
+        long now = clock.instant().getEpochSecond();
+        String key = key(fromCurrency, toCurrency);
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            makeRoom(now);
+        }
+        entries.put(key, new Entry(fromCurrency, toCurrency, rate, now + ttl));
+    }
+
+    /**
+     * Returns every entry held, including expired ones not yet removed, soonest expiry first.
+     */
+    public List<CachedRate> entries() {
+        List<CachedRate> snapshot = new ArrayList<>();
+        entries.values().forEach(entry ->
+                snapshot.add(new CachedRate(entry.from(), entry.to(), entry.rate(), entry.expiresAt())));
+        snapshot.sort(Comparator.comparingLong(CachedRate::getExpiresAt));
+        return snapshot;
+    }
+
+    public boolean evict(String fromCurrency, String toCurrency) {
+        return entries.remove(key(fromCurrency, toCurrency)) != null;
+    }
+
+    public int clear() {
+        int size = entries.size();
+        entries.clear();
+        return size;
+    }
+
+    private synchronized void makeRoom(long now) {
+        entries.values().removeIf(entry -> now >= entry.expiresAt());
+        while (entries.size() >= maxEntries) {
+            String soonest = null;
+            long soonestExpiry = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+                if (candidate.getValue().expiresAt() < soonestExpiry) {
+                    soonest = candidate.getKey();
+                    soonestExpiry = candidate.getValue().expiresAt();
+                }
+            }
+            if (soonest == null) {
+                return;
+            }
+            entries.remove(soonest);
+            evictions.increment();
+        }
+    }
+
+    private static String key(String fromCurrency, String toCurrency) {
+        return fromCurrency + "/" + toCurrency;
+    }
+
+    private record Entry(String from, String to, BigDecimal rate, long expiresAt) {
+    }
+}
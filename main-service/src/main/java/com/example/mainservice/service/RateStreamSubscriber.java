@@ -0,0 +1,77 @@
+package com.example.mainservice.service;
+
+import com.example.mainservice.model.RateDelta;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Keeps {@link LocalRateStore} current over one long-lived connection to rate-service's
+ * {@code /rates/stream}, instead of calling {@code /rate} for every conversion.
+ * On every (re)connect rate-service resends its tables in full, so a dropped connection
+ * only costs freshness until the next reconnect attempt.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-service.stream.enabled", havingValue = "true")
+public class RateStreamSubscriber {
+    private static final Logger logger = LoggerFactory.getLogger(RateStreamSubscriber.class);
+
+    private static final ParameterizedTypeReference<ServerSentEvent<RateDelta>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() { };
+
+    private final WebClient rateServiceClient;
+    private final LocalRateStore localRateStore;
+    private final Duration maxReconnectDelay;
+    private Disposable subscription;
+
+    public RateStreamSubscriber(
+            WebClient rateServiceClient,
+            LocalRateStore localRateStore,
+            @Value("${rate-service.stream.max-reconnect-delay-seconds:30}") long maxReconnectDelaySeconds) {
+        this.rateServiceClient = rateServiceClient;
+        this.localRateStore = localRateStore;
+        this.maxReconnectDelay = Duration.ofSeconds(maxReconnectDelaySeconds);
+    }
+
+    @PostConstruct
+    public void start() {
+        subscription = rateServiceClient
+                .get()
+                .uri("/rates/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .bodyToFlux(EVENT_TYPE)
+                .doOnSubscribe(s -> logger.info("Subscribing to rate-service update stream"))
+                .doOnNext(event -> {
+                    // On a missed update, resubscribe: the stream starts with every table in full
+                    if (event.data() != null && !localRateStore.apply(event.data())) {
+                        throw new IllegalStateException("Missed an update of the " + event.data().getBase() + " rate table");
+                    }
+                })
+                .doOnError(e -> logger.warn("Rate update stream failed: {}", e.getMessage()))
+                // A completed stream means rate-service closed the connection; reconnect the same way
+                .repeatWhen(completions -> completions.delayElements(Duration.ofSeconds(1)))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(maxReconnectDelay).transientErrors(true))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        localRateStore.clear();
+    }
+}
@@ -9,9 +9,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import reactor.core.publisher.Mono;
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +40,45 @@ class ConversionControllerTest {
                 .andExpect(jsonPath("$.convertedAmount", is(85.00)));
     }
 
+    @Test
+    void convertCurrencyAsync_shouldReturnOk() throws Exception {
+        ConversionResponse resp = new ConversionResponse("USD", "EUR", new BigDecimal("100"), new BigDecimal("85.00"), new BigDecimal("0.85"));
+        when(service.convertCurrencyAsync(any())).thenReturn(Mono.just(resp));
+        MvcResult result = mockMvc.perform(post("/convert/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"from\":\"USD\",\"to\":\"EUR\",\"amount\":100}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from", is("USD")))
+                .andExpect(jsonPath("$.convertedAmount", is(85.00)));
+    }
+
+    @Test
+    void convertBatch_shouldReturnResultsInRequestOrder() throws Exception {
+        when(service.convertBatch(any())).thenReturn(List.of(
+                new ConversionResponse("USD", "EUR", new BigDecimal("100"), new BigDecimal("85.00"), new BigDecimal("0.85")),
+                new ConversionResponse("USD", "GBP", new BigDecimal("10"), new BigDecimal("7.50"), new BigDecimal("0.75"))));
+        mockMvc.perform(post("/convert/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"conversions\":[{\"from\":\"USD\",\"to\":\"EUR\",\"amount\":100},"
+                        + "{\"from\":\"USD\",\"to\":\"GBP\",\"amount\":10}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].to", is("EUR")))
+                .andExpect(jsonPath("$[1].convertedAmount", is(7.50)));
+    }
+
+    @Test
+    void convertBatch_shouldRejectInvalidItem() throws Exception {
+        mockMvc.perform(post("/convert/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"conversions\":[{\"from\":\"USD\",\"to\":\"EUR\",\"amount\":-1}]}"))
+                .andExpect(status().isBadRequest());
+        verify(service, never()).convertBatch(any());
+    }
+
     @Test
     void getAllConversions_shouldReturnList() throws Exception {
         Conversion conv = new Conversion("USD", "EUR", new BigDecimal("100"), new BigDecimal("85.00"), new BigDecimal("0.85"));
@@ -0,0 +1,72 @@
+package com.example.mainservice.service;
+
+import com.example.mainservice.model.Conversion;
+import com.example.mainservice.model.ConversionRequest;
+import com.example.mainservice.model.ConversionResponse;
+import com.example.mainservice.repository.ConversionRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ConversionServiceUnitTest {
+
+    private static ConversionRequest request(String from, String to, String amount) {
+        ConversionRequest request = new ConversionRequest();
+        request.setFrom(from);
+        request.setTo(to);
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void convertBatch_shouldResolveEachPairOnceAndInsertInOneBatch() {
+        WebClient webClient = mock(WebClient.class);
+        ConversionRepository repo = mock(ConversionRepository.class);
+        LocalRateStore localRateStore = mock(LocalRateStore.class);
+        RateCache rateCache = mock(RateCache.class);
+        when(rateCache.get("USD", "EUR")).thenReturn(new BigDecimal("0.85"));
+        when(rateCache.get("GBP", "JPY")).thenReturn(new BigDecimal("190.5"));
+        ConversionService service = new ConversionService(webClient, repo, localRateStore, rateCache, mock(ConversionWriter.class), "http://rate-service:8081", 60, 10, 4);
+
+        List<ConversionResponse> responses = service.convertBatch(List.of(
+                request("USD", "EUR", "100"),
+                request("gbp", "jpy", "2"),
+                request("usd", "eur", "10")));
+
+        assertEquals(3, responses.size());
+        assertEquals(new BigDecimal("85.00"), responses.get(0).getConvertedAmount());
+        assertEquals(new BigDecimal("381.00"), responses.get(1).getConvertedAmount());
+        assertEquals("EUR", responses.get(2).getTo());
+        assertEquals(new BigDecimal("8.50"), responses.get(2).getConvertedAmount());
+        verify(rateCache, times(1)).get("USD", "EUR");
+        verify(rateCache, times(1)).get("GBP", "JPY");
+        verifyNoInteractions(webClient);
+
+        ArgumentCaptor<List<Conversion>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repo).insertAll(saved.capture());
+        assertEquals(3, saved.getValue().size());
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void convertBatch_shouldRejectOversizedBatch() {
+        ConversionRepository repo = mock(ConversionRepository.class);
+        RateCache rateCache = mock(RateCache.class);
+        ConversionService service = new ConversionService(mock(WebClient.class), repo, mock(LocalRateStore.class), rateCache, mock(ConversionWriter.class), "http://rate-service:8081", 60, 1, 4);
+
+        assertThrows(IllegalArgumentException.class, () -> service.convertBatch(List.of(
+                request("USD", "EUR", "1"),
+                request("USD", "GBP", "1"))));
+        verify(rateCache, never()).get(anyString(), anyString());
+        verifyNoInteractions(repo);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.mainservice.service;
+
+import com.example.mainservice.model.Conversion;
+import com.example.mainservice.repository.ConversionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ConversionWriterTest {
+
+    private static Conversion conversion(String to) {
+        return new Conversion("USD", to, new BigDecimal("100"), new BigDecimal("85.00"), new BigDecimal("0.85"));
+    }
+
+    @Test
+    void write_shouldSaveSynchronouslyWhenDisabled() {
+        ConversionRepository repo = mock(ConversionRepository.class);
+        ConversionWriter writer = new ConversionWriter(repo, new SimpleMeterRegistry(), false, 10, 5, 50, 0, 1_000);
+        writer.start();
+
+        writer.write(conversion("EUR"));
+
+        verify(repo).save(any(Conversion.class));
+        verify(repo, never()).insertAll(any());
+        writer.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stop_shouldFlushQueuedConversionsInBatches() {
+        ConversionRepository repo = mock(ConversionRepository.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConversionWriter writer = new ConversionWriter(repo, registry, true, 10, 2, 50, 1_000, 5_000);
+        writer.start();
+
+        writer.write(conversion("EUR"));
+        writer.write(conversion("GBP"));
+        writer.write(conversion("JPY"));
+        writer.stop();
+
+        ArgumentCaptor<List<Conversion>> batches = ArgumentCaptor.forClass(List.class);
+        verify(repo, atLeastOnce()).insertAll(batches.capture());
+        assertEquals(3, batches.getAllValues().stream().mapToInt(List::size).sum());
+        assertTrue(batches.getAllValues().stream().allMatch(batch -> batch.size() <= 2));
+        verify(repo, never()).save(any(Conversion.class));
+        assertEquals(0.0, registry.get("conversion.writer.queue.depth").gauge().value());
+        assertTrue(registry.get("conversion.writer.flush").timer().count() >= 1);
+    }
+
+    @Test
+    void write_shouldSaveSynchronouslyOnceStopped() {
+        ConversionRepository repo = mock(ConversionRepository.class);
+        ConversionWriter writer = new ConversionWriter(repo, new SimpleMeterRegistry(), true, 10, 5, 50, 1_000, 5_000);
+        writer.start();
+        writer.stop();
+
+        writer.write(conversion("EUR"));
+
+        verify(repo).save(any(Conversion.class));
+        verify(repo, never()).insertAll(any());
+    }
+
+    @Test
+    void flush_shouldFallBackToSingleRowSavesWhenBatchFails() {
+        ConversionRepository repo = mock(ConversionRepository.class);
+        doThrow(new IllegalStateException("batch failed")).when(repo).insertAll(any());
+        when(repo.save(any(Conversion.class))).thenAnswer(inv -> inv.getArgument(0));
+        ConversionWriter writer = new ConversionWriter(repo, new SimpleMeterRegistry(), true, 10, 10, 50, 1_000, 5_000);
+        writer.start();
+
+        writer.write(conversion("EUR"));
+        writer.write(conversion("GBP"));
+        writer.stop();
+
+        verify(repo, times(2)).save(any(Conversion.class));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.mainservice.service;
+
+import com.example.mainservice.model.RateDelta;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalRateStoreTest {
+
+    private static RateDelta delta(boolean full, long nextUpdate, Map<String, BigDecimal> rates) {
+        RateDelta delta = new RateDelta();
+        delta.setBase("USD");
+        delta.setNextUpdate(nextUpdate);
+        delta.setFull(full);
+        delta.setRates(rates);
+        return delta;
+    }
+
+    @Test
+    void rate_shouldTriangulateAndApplyDeltas() {
+        LocalRateStore store = new LocalRateStore(Clock.fixed(Instant.ofEpochSecond(1_000), ZoneOffset.UTC), 12, 0);
+        store.apply(delta(true, 2_000, Map.of("USD", BigDecimal.ONE, "EUR", new BigDecimal("0.85"), "GBP", new BigDecimal("0.75"))));
+
+        assertEquals(0, new BigDecimal("0.882352941176").compareTo(store.rate("EUR", "GBP")));
+
+        store.apply(delta(false, 2_000, Map.of("EUR", new BigDecimal("0.80"))));
+
+        assertEquals(0, new BigDecimal("0.9375").compareTo(store.rate("EUR", "GBP")));
+        assertEquals(0, new BigDecimal("0.75").compareTo(store.rate("USD", "GBP")));
+        assertNull(store.rate("USD", "JPY"));
+    }
+
+    @Test
+    void apply_shouldDropTableWhenDeltaFollowsMissedUpdate() {
+        LocalRateStore store = new LocalRateStore(Clock.fixed(Instant.ofEpochSecond(1_000), ZoneOffset.UTC), 12, 0);
+        RateDelta full = delta(true, 2_000, Map.of("USD", BigDecimal.ONE, "EUR", new BigDecimal("0.85")));
+        full.setSequence(5);
+        assertTrue(store.apply(full));
+
+        RateDelta next = delta(false, 2_000, Map.of("EUR", new BigDecimal("0.86")));
+        next.setPreviousSequence(5);
+        next.setSequence(6);
+        assertTrue(store.apply(next));
+        assertEquals(0, new BigDecimal("0.86").compareTo(store.rate("USD", "EUR")));
+
+        RateDelta afterGap = delta(false, 2_000, Map.of("GBP", new BigDecimal("0.75")));
+        afterGap.setPreviousSequence(7);
+        afterGap.setSequence(8);
+        assertFalse(store.apply(afterGap));
+        assertNull(store.rate("USD", "EUR"));
+    }
+
+    @Test
+    void rate_shouldIgnoreExpiredTablesAndOrphanDeltas() {
+        LocalRateStore store = new LocalRateStore(Clock.fixed(Instant.ofEpochSecond(3_000), ZoneOffset.UTC), 12, 0);
+        store.apply(delta(false, 4_000, Map.of("EUR", new BigDecimal("0.85"))));
+        assertNull(store.rate("USD", "EUR"));
+
+        store.apply(delta(true, 2_000, Map.of("USD", BigDecimal.ONE, "EUR", new BigDecimal("0.85"))));
+        assertNull(store.rate("USD", "EUR"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.mainservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateCacheTest {
+
+    private static final Clock NOW = Clock.fixed(Instant.ofEpochSecond(1_000), ZoneOffset.UTC);
+
+    @Test
+    void get_shouldCountHitsAndMisses() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateCache cache = new RateCache(registry, NOW, 10, 3_600);
+        cache.put("USD", "EUR", new BigDecimal("0.85"), 60);
+
+        assertEquals(new BigDecimal("0.85"), cache.get("USD", "EUR"));
+        assertNull(cache.get("EUR", "USD"));
+        assertEquals(1.0, registry.get("rate.cache.hits").counter().count());
+        assertEquals(1.0, registry.get("rate.cache.misses").counter().count());
+    }
+
+    @Test
+    void get_shouldIgnoreExpiredEntries() {
+        RateCache cache = new RateCache(new SimpleMeterRegistry(), NOW, 10, 3_600);
+        cache.put("USD", "EUR", new BigDecimal("0.85"), 60);
+        assertEquals(1_060, cache.entries().get(0).getExpiresAt());
+
+        RateCache later = new RateCache(new SimpleMeterRegistry(), Clock.offset(NOW, Duration.ofSeconds(60)), 10, 3_600);
+        later.put("USD", "EUR", new BigDecimal("0.85"), 0);
+        assertNull(later.get("USD", "EUR"));
+        assertTrue(later.entries().isEmpty());
+    }
+
+    @Test
+    void put_shouldCapTtlAndEvictSoonestExpiringWhenFull() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateCache cache = new RateCache(registry, NOW, 2, 300);
+        cache.put("USD", "EUR", new BigDecimal("0.85"), 100);
+        cache.put("USD", "GBP", new BigDecimal("0.75"), 10_000);
+        cache.put("USD", "JPY", new BigDecimal("150"), 200);
+
+        assertNull(cache.get("USD", "EUR"));
+        assertEquals(1_300, cache.entries().stream().filter(rate -> rate.getTo().equals("GBP")).findFirst().orElseThrow().getExpiresAt());
+        assertEquals(new BigDecimal("150"), cache.get("USD", "JPY"));
+        assertEquals(1.0, registry.get("rate.cache.evictions").counter().count());
+    }
+
+    @Test
+    void evict_shouldRemoveSinglePair() {
+        RateCache cache = new RateCache(new SimpleMeterRegistry(), NOW, 10, 3_600);
+        cache.put("USD", "EUR", new BigDecimal("0.85"), 60);
+
+        assertTrue(cache.evict("USD", "EUR"));
+        assertFalse(cache.evict("USD", "EUR"));
+        assertNull(cache.get("USD", "EUR"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.rateservice.benchmark;
+
+import com.example.rateservice.model.CurrencyIndex;
+import com.example.rateservice.model.ExchangeRateResponse;
+import com.example.rateservice.model.RateSnapshot;
+import com.example.rateservice.service.RateTableParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a full {@code /latest/{base}} payload into a {@link RateSnapshot} through the
+ * WebClient {@code bodyToMono(ExchangeRateResponse.class)} codec path against {@link RateTableParser}.
+ * Both sides consume the body as a stream of network-sized {@link DataBuffer} chunks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RateTableParsingBenchmark {
+
+    private static final ResolvableType RESPONSE_TYPE = ResolvableType.forClass(ExchangeRateResponse.class);
+
+    @Param({"8192"})
+    public int chunkSize;
+
+    private byte[] payload;
+    private Jackson2JsonDecoder databindDecoder;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder json = new StringBuilder()
+                .append("{\"result\":\"success\",")
+                .append("\"documentation\":\"https://www.exchangerate-api.com/docs\",")
+                .append("\"terms_of_use\":\"https://www.exchangerate-api.com/terms\",")
+                .append("\"time_last_update_unix\":1700000001,")
+                .append("\"time_last_update_utc\":\"Wed, 15 Nov 2023 00:00:01 +0000\",")
+                .append("\"time_next_update_unix\":1700086401,")
+                .append("\"time_next_update_utc\":\"Thu, 16 Nov 2023 00:00:01 +0000\",")
+                .append("\"base_code\":\"USD\",\"conversion_rates\":{");
+        for (int ordinal = 0; ordinal < CurrencyIndex.size(); ordinal++) {
+            if (ordinal > 0) {
+                json.append(',');
+            }
+            double rate = Math.pow(10, random.nextInt(6) - 1) * (1 + random.nextDouble());
+            json.append('"').append(CurrencyIndex.codeOf(ordinal)).append("\":")
+                    .append(String.format(Locale.ROOT, "%.4f", rate));
+        }
+        json.append("}}");
+        payload = json.toString().getBytes(StandardCharsets.UTF_8);
+
+        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        databindDecoder = new Jackson2JsonDecoder(mapper);
+    }
+
+    private Flux<DataBuffer> body() {
+        List<DataBuffer> chunks = new ArrayList<>();
+        for (int offset = 0; offset < payload.length; offset += chunkSize) {
+            int length = Math.min(chunkSize, payload.length - offset);
+            chunks.add(DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(payload, offset, length).slice()));
+        }
+        return Flux.fromIterable(chunks);
+    }
+
+    @Benchmark
+    public RateSnapshot databindBodyToMono() {
+        ExchangeRateResponse response = (ExchangeRateResponse) databindDecoder
+                .decodeToMono(body(), RESPONSE_TYPE, MediaType.APPLICATION_JSON, Collections.emptyMap())
+                .block();
+        return RateSnapshot.fromResponse(response);
+    }
+
+    @Benchmark
+    public RateSnapshot streamingParser() {
+        return RateTableParser.parse(body()).block();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.rateservice.config;
+
+import com.example.rateservice.provider.ExchangeRateApiProvider;
+import com.example.rateservice.provider.HedgedRateProvider;
+import com.example.rateservice.provider.QuotaLimitedRateProvider;
+import com.example.rateservice.provider.RateProvider;
+import com.example.rateservice.service.QuotaBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+@Configuration
+public class RateProviderConfig {
+
+    /**
+     * The keyed exchangerate-api plan, whose calls count against the monthly quota.
+     */
+    @Bean
+    public RateProvider primaryRateProvider(
+            WebClient webClient,
+            QuotaBudget quotaBudget,
+            @Value("${exchangerate.api.base-url:https://v6.exchangerate-api.com/v6}") String apiBaseUrl,
+            @Value("${exchangerate.api.key:YOUR_API_KEY}") String apiKey) {
+        return new QuotaLimitedRateProvider(
+                new ExchangeRateApiProvider("exchangerate-api", webClient, apiBaseUrl, apiKey),
+                quotaBudget);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "exchangerate.secondary.enabled", havingValue = "true")
+    public RateProvider secondaryRateProvider(
+            WebClient webClient,
+            @Value("${exchangerate.secondary.base-url:https://open.er-api.com/v6}") String baseUrl) {
+        return new ExchangeRateApiProvider("open-er-api", webClient, baseUrl, null);
+    }
+
+    /**
+     * The provider {@code ExchangeRateService} fetches through: the primary alone, or the primary hedged
+     * with the secondary when one is enabled.
+     */
+    @Bean
+    @Primary
+    public RateProvider rateProvider(
+            @Qualifier("primaryRateProvider") RateProvider primaryRateProvider,
+            @Qualifier("secondaryRateProvider") ObjectProvider<RateProvider> secondaryRateProvider,
+            MeterRegistry meterRegistry,
+            @Value("${exchangerate.hedging.window-size:128}") int windowSize,
+            @Value("${exchangerate.hedging.min-samples:20}") int minSamples,
+            @Value("${exchangerate.hedging.initial-delay-ms:500}") long initialDelayMillis,
+            @Value("${exchangerate.hedging.min-delay-ms:50}") long minDelayMillis) {
+        RateProvider secondary = secondaryRateProvider.getIfAvailable();
+        if (secondary == null) {
+            return primaryRateProvider;
+        }
+        return new HedgedRateProvider(primaryRateProvider, secondary, meterRegistry, windowSize, minSamples,
+                Duration.ofMillis(initialDelayMillis), Duration.ofMillis(minDelayMillis));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.rateservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Bounded pool for background rate table refreshes, so a slow upstream can never
+     * pile up more refresh work than the pool and its queue can hold.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor rateRefreshExecutor(
+            @Value("${exchangerate.refresh.pool-size:2}") int poolSize,
+            @Value("${exchangerate.refresh.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("rate-refresh-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
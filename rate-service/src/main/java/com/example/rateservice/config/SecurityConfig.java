@@ -1,6 +1,7 @@
 package com.example.rateservice.config;
 
 import com.example.rateservice.security.JwtRequestFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -31,7 +32,10 @@ public class SecurityConfig {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(authorize -> authorize
+                // Reactive endpoints finish on an async dispatch; the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/status").permitAll() // Allow status endpoint without authentication
+                .requestMatchers("/actuator/health/**").permitAll() // Liveness and readiness probes
                 // OpenAPI endpoints
                 .requestMatchers("/v3/api-docs/**").permitAll()
                 .requestMatchers("/api-docs/**").permitAll()
@@ -1,14 +1,93 @@
 package com.example.rateservice.config;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
 
 @Configuration
 public class WebClientConfig {
 
+    private static final Pattern LATEST_PATH = Pattern.compile("/latest/[A-Za-z]{3}$");
+
+    /**
+     * Dedicated connection pool for the upstream exchange-rate API. Idle and long-lived connections are
+     * evicted in the background, waiters for a connection are bounded in number and time, and pool
+     * usage is exported as reactor.netty.connection.provider.* metrics.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(
+            @Value("${exchangerate.http.max-connections:50}") int maxConnections,
+            @Value("${exchangerate.http.pending-acquire-max-count:200}") int pendingAcquireMaxCount,
+            @Value("${exchangerate.http.pending-acquire-timeout-ms:2000}") long pendingAcquireTimeoutMillis,
+            @Value("${exchangerate.http.max-idle-time-ms:30000}") long maxIdleTimeMillis,
+            @Value("${exchangerate.http.max-life-time-ms:300000}") long maxLifeTimeMillis,
+            @Value("${exchangerate.http.evict-interval-ms:10000}") long evictIntervalMillis) {
+        return ConnectionProvider.builder("exchangerate-upstream")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMillis))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMillis))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMillis))
+                .evictInBackground(Duration.ofMillis(evictIntervalMillis))
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Client for every upstream call. Filter beans, such as the recording or replaying filter of the
+     * {@code upstream-record} and {@code upstream-replay} profiles, are applied to all of its exchanges.
+     */
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder().build();
+    public WebClient webClient(
+            WebClient.Builder builder,
+            ConnectionProvider upstreamConnectionProvider,
+            ObjectProvider<ExchangeFilterFunction> upstreamFilters,
+            @Value("${exchangerate.http.connect-timeout-ms:2000}") int connectTimeoutMillis,
+            @Value("${exchangerate.http.response-timeout-ms:4000}") long responseTimeoutMillis,
+            @Value("${exchangerate.http.http2-enabled:true}") boolean http2Enabled) {
+        // HTTP/2 is negotiated via ALPN on TLS connections; plain-text and HTTP/1.1-only upstreams fall back to HTTP/1.1
+        HttpProtocol[] protocols = http2Enabled
+                ? new HttpProtocol[] {HttpProtocol.H2, HttpProtocol.HTTP11}
+                : new HttpProtocol[] {HttpProtocol.HTTP11};
+
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .protocol(protocols)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMillis))
+                // Request paths embed the API key and base currency, so they are reduced to their path template
+                .metrics(true, WebClientConfig::uriTag);
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filters(filters -> upstreamFilters.orderedStream().forEach(filters::add))
+                .build();
+    }
+
+    /**
+     * Maps an upstream request path to the path template used as its uri metric tag.
+     */
+    static String uriTag(String uri) {
+        int query = uri.indexOf('?');
+        String path = query < 0 ? uri : uri.substring(0, query);
+        if (LATEST_PATH.matcher(path).find()) {
+            return "/latest/{base}";
+        }
+        if (path.endsWith("/codes")) {
+            return "/codes";
+        }
+        return "/other";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.example.rateservice.controller;
+
+import com.example.rateservice.model.PairDemand;
+import com.example.rateservice.service.DemandTracker;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@Validated
+@Tag(name = "Administration", description = "Operational insight into the rate service")
+public class DemandController {
+
+    private final DemandTracker demandTracker;
+
+    public DemandController(DemandTracker demandTracker) {
+        this.demandTracker = demandTracker;
+    }
+
+    @Operation(
+        summary = "Get the most requested currency pairs",
+        description = "Returns up to k currency pairs with the highest estimated recent request counts, hottest first"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Hot pairs retrieved"),
+        @ApiResponse(responseCode = "400", description = "Invalid k"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping("/admin/demand/pairs")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<List<PairDemand>> getHotPairs(
+            @Parameter(description = "Number of pairs to return", example = "10")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int k) {
+        return ResponseEntity.ok(demandTracker.topPairs(k));
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.rateservice.controller;
 
+import com.example.rateservice.model.RateHistoryResponse;
 import com.example.rateservice.model.RateResponse;
+import com.example.rateservice.model.RatesResponse;
 import com.example.rateservice.service.ExchangeRateService;
+import com.example.rateservice.service.SupportedCurrencies;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,11 +13,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
 
 @RestController
 @Validated
@@ -22,9 +34,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class RateController {
 
     private final ExchangeRateService exchangeRateService;
+    private final SupportedCurrencies supportedCurrencies;
 
-    public RateController(ExchangeRateService exchangeRateService) {
+    public RateController(ExchangeRateService exchangeRateService, SupportedCurrencies supportedCurrencies) {
         this.exchangeRateService = exchangeRateService;
+        this.supportedCurrencies = supportedCurrencies;
     }
 
     @Operation(
@@ -37,19 +51,140 @@ public class RateController {
             description = "Exchange rate retrieved successfully",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = RateResponse.class))
         ),
+        @ApiResponse(responseCode = "304", description = "Rate unchanged since the ETag or Last-Modified the client holds"),
         @ApiResponse(responseCode = "400", description = "Invalid currency codes"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "503", description = "Exchange rate API unavailable")
     })
     @GetMapping("/rate")
-    public ResponseEntity<RateResponse> getExchangeRate(
+    public Mono<ResponseEntity<RateResponse>> getExchangeRate(
             @Parameter(description = "Source currency code (3 letters)", example = "USD", required = true)
             @RequestParam @NotBlank String from,
             
             @Parameter(description = "Target currency code (3 letters)", example = "EUR", required = true)
             @RequestParam @NotBlank String to) {
         
-        RateResponse rateResponse = exchangeRateService.getExchangeRate(from.toUpperCase(), to.toUpperCase());
-        return ResponseEntity.ok(rateResponse);
+        String fromCurrency = from.toUpperCase(Locale.ROOT);
+        String toCurrency = to.toUpperCase(Locale.ROOT);
+        String unsupported = firstUnsupported(fromCurrency, Set.of(toCurrency));
+        if (unsupported != null) {
+            return Mono.error(new IllegalArgumentException("Invalid currency code: " + unsupported));
+        }
+        return exchangeRateService.getExchangeRateAsync(fromCurrency, toCurrency)
+                .map(RateController::withValidators);
+    }
+
+    /**
+     * Returns the first code the upstream does not support, or {@code null}, so unknown codes are rejected
+     * before a rate table is looked up or fetched.
+     */
+    private String firstUnsupported(String fromCurrency, Set<String> toCurrencies) {
+        if (!supportedCurrencies.isSupported(fromCurrency)) {
+            return fromCurrency;
+        }
+        for (String toCurrency : toCurrencies) {
+            if (!supportedCurrencies.isSupported(toCurrency)) {
+                return toCurrency;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds ETag and Last-Modified derived from the upstream update the rate came from, and lets the client keep it
+     * until the next update. The response is marked private since it is only served to authenticated callers, so
+     * shared caches must not hand it to anyone else. Spring answers a matching If-None-Match or If-Modified-Since with 304 before the
+     * body is serialised.
+     */
+    private static ResponseEntity<RateResponse> withValidators(RateResponse response) {
+        String etag = "\"" + response.getFrom() + "-" + response.getTo() + "-" + response.getLastUpdated() + "\"";
+        CacheControl cacheControl = response.isStale()
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(Duration.ofSeconds(Math.max(0, response.getNextUpdate() - Instant.now().getEpochSecond())))
+                        .cachePrivate();
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(Instant.ofEpochSecond(response.getLastUpdated()))
+                .cacheControl(cacheControl)
+                .body(response);
+    }
+
+    @Operation(
+        summary = "Get exchange rates for several targets",
+        description = "Retrieves rates from one currency to a comma-separated list of targets (or * for all), "
+            + "all taken from the same upstream update"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Exchange rates retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = RatesResponse.class))
+        ),
+        @ApiResponse(responseCode = "400", description = "Invalid currency codes"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "503", description = "Exchange rate API unavailable")
+    })
+    @GetMapping("/rates")
+    public Mono<ResponseEntity<RatesResponse>> getExchangeRates(
+            @Parameter(description = "Source currency code (3 letters)", example = "USD", required = true)
+            @RequestParam @NotBlank String from,
+
+            @Parameter(description = "Comma-separated target currency codes, or * for every supported currency",
+                example = "EUR,GBP,JPY", required = true)
+            @RequestParam @NotBlank String to) {
+
+        String fromCurrency = from.toUpperCase(Locale.ROOT);
+        boolean allTargets = "*".equals(to.trim());
+        Set<String> targets = new LinkedHashSet<>();
+        if (!allTargets) {
+            for (String code : to.split(",")) {
+                if (!code.isBlank()) {
+                    targets.add(code.trim().toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        String unsupported = firstUnsupported(fromCurrency, targets);
+        if (unsupported != null) {
+            return Mono.error(new IllegalArgumentException("Invalid currency code: " + unsupported));
+        }
+        if (allTargets) {
+            return exchangeRateService.getAllExchangeRatesAsync(fromCurrency).map(ResponseEntity::ok);
+        }
+        return exchangeRateService.getExchangeRatesAsync(fromCurrency, targets).map(ResponseEntity::ok);
+    }
+
+    @Operation(
+        summary = "Get historical exchange rates",
+        description = "Retrieves the recorded rates between two currencies for upstream updates in a time range, "
+            + "optionally reduced to the last update per step-sized bucket"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Historical rates retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = RateHistoryResponse.class))
+        ),
+        @ApiResponse(responseCode = "400", description = "Invalid currency codes or time range"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping("/rates/history")
+    public ResponseEntity<RateHistoryResponse> getRateHistory(
+            @Parameter(description = "Source currency code (3 letters)", example = "USD", required = true)
+            @RequestParam @NotBlank String from,
+
+            @Parameter(description = "Target currency code (3 letters)", example = "EUR", required = true)
+            @RequestParam @NotBlank String to,
+
+            @Parameter(description = "Start of the range, unix seconds (inclusive)", example = "1672531200", required = true)
+            @RequestParam long start,
+
+            @Parameter(description = "End of the range, unix seconds (inclusive)", example = "1704067199", required = true)
+            @RequestParam long end,
+
+            @Parameter(description = "Bucket size in seconds; 0 returns every update", example = "86400")
+            @RequestParam(defaultValue = "0") @PositiveOrZero long step) {
+
+        return ResponseEntity.ok(exchangeRateService.getRateHistory(
+                from.toUpperCase(Locale.ROOT), to.toUpperCase(Locale.ROOT), start, end, step));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package com.example.rateservice.controller;
+
+import com.example.rateservice.service.RateUpdateBroadcaster;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+
+@RestController
+@Tag(name = "Exchange Rates", description = "APIs for retrieving currency exchange rates")
+public class RateStreamController {
+
+    // The stream stays open for as long as the subscriber is connected, so only this request opts out of
+    // the MVC async timeout (0 disables it)
+    private static final long NO_TIMEOUT = 0L;
+
+    private final RateUpdateBroadcaster rateUpdateBroadcaster;
+    private final Duration heartbeatInterval;
+
+    public RateStreamController(
+            RateUpdateBroadcaster rateUpdateBroadcaster,
+            @Value("${exchangerate.stream.heartbeat-seconds:15}") long heartbeatSeconds) {
+        this.rateUpdateBroadcaster = rateUpdateBroadcaster;
+        this.heartbeatInterval = Duration.ofSeconds(heartbeatSeconds);
+    }
+
+    @Operation(
+        summary = "Stream rate updates",
+        description = "Server-sent events carrying every cached rate table in full on connect, "
+            + "followed by a delta of the changed rates whenever a table is refreshed"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream opened"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping(path = "/rates/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRates() {
+        SseEmitter emitter = new SseEmitter(NO_TIMEOUT);
+        Flux<SseEmitter.SseEventBuilder> deltas = rateUpdateBroadcaster.stream()
+                .map(delta -> SseEmitter.event()
+                        .name("rates")
+                        .id(delta.getBase() + ":" + delta.getSequence())
+                        .data(delta, MediaType.APPLICATION_JSON));
+        // Comment-only events keep idle connections from being closed by proxies
+        Flux<SseEmitter.SseEventBuilder> heartbeats = Flux.interval(heartbeatInterval)
+                .map(tick -> SseEmitter.event().comment("heartbeat"));
+
+        // Writes happen off the broadcasting thread; a subscriber too slow to drain its buffer misses
+        // deltas and resubscribes, as it would have with the reactive return type
+        Disposable subscription = Flux.merge(deltas, heartbeats)
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(event -> send(emitter, event), emitter::completeWithError, emitter::complete);
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            // The client went away; completing the emitter disposes the subscription
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -28,6 +28,11 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Validation failed: " + ex.getMessage()));
     }
 
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleUpstreamUnavailableException(UpstreamUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "External service unavailable: " + ex.getMessage()));
+    }
+
     @ExceptionHandler(WebClientException.class)
     public ResponseEntity<Map<String, String>> handleWebClientException(WebClientException ex) {
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "External service unavailable: " + ex.getMessage()));
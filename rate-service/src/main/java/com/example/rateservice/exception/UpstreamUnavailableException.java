@@ -0,0 +1,16 @@
+package com.example.rateservice.exception;
+
+/**
+ * Raised when the upstream exchange-rate API cannot be reached in time, or is being skipped
+ * because its circuit breaker is open, and no cached table is recent enough to answer from.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+
+    public UpstreamUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
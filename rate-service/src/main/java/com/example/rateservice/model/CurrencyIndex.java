@@ -0,0 +1,81 @@
+package com.example.rateservice.model;
+
+import java.util.Arrays;
+
+/**
+ * Fixed mapping between currency codes and dense ordinals used to address rate arrays.
+ *
+ * <p>The table covers the ISO 4217 codes published by the upstream exchange rate API (plus the
+ * handful of non-ISO local codes it also quotes, such as FOK or GGP). Lookups decode the three
+ * letters arithmetically into a slot of a 26^3 table, so resolving a code never hashes or allocates.
+ */
+public final class CurrencyIndex {
+
+    private static final String[] CODES = {
+        "AED", "AFN", "ALL", "AMD", "ANG", "AOA", "ARS", "AUD", "AWG", "AZN",
+        "BAM", "BBD", "BDT", "BGN", "BHD", "BIF", "BMD", "BND", "BOB", "BRL",
+        "BSD", "BTN", "BWP", "BYN", "BZD", "CAD", "CDF", "CHF", "CLP", "CNY",
+        "COP", "CRC", "CUP", "CVE", "CZK", "DJF", "DKK", "DOP", "DZD", "EGP",
+        "ERN", "ETB", "EUR", "FJD", "FKP", "FOK", "GBP", "GEL", "GGP", "GHS",
+        "GIP", "GMD", "GNF", "GTQ", "GYD", "HKD", "HNL", "HRK", "HTG", "HUF",
+        "IDR", "ILS", "IMP", "INR", "IQD", "IRR", "ISK", "JEP", "JMD", "JOD",
+        "JPY", "KES", "KGS", "KHR", "KID", "KMF", "KRW", "KWD", "KYD", "KZT",
+        "LAK", "LBP", "LKR", "LRD", "LSL", "LYD", "MAD", "MDL", "MGA", "MKD",
+        "MMK", "MNT", "MOP", "MRU", "MUR", "MVR", "MWK", "MXN", "MYR", "MZN",
+        "NAD", "NGN", "NIO", "NOK", "NPR", "NZD", "OMR", "PAB", "PEN", "PGK",
+        "PHP", "PKR", "PLN", "PYG", "QAR", "RON", "RSD", "RUB", "RWF", "SAR",
+        "SBD", "SCR", "SDG", "SEK", "SGD", "SHP", "SLE", "SLL", "SOS", "SRD",
+        "SSP", "STN", "SYP", "SZL", "THB", "TJS", "TMT", "TND", "TOP", "TRY",
+        "TTD", "TVD", "TWD", "TZS", "UAH", "UGX", "USD", "UYU", "UZS", "VES",
+        "VND", "VUV", "WST", "XAF", "XCD", "XCG", "XDR", "XOF", "XPF", "YER",
+        "ZAR", "ZMW", "ZWL"
+    };
+
+    private static final int SLOTS = 26 * 26 * 26;
+    private static final short[] ORDINALS = new short[SLOTS];
+
+    static {
+        Arrays.fill(ORDINALS, (short) -1);
+        for (int i = 0; i < CODES.length; i++) {
+            ORDINALS[slot(CODES[i])] = (short) i;
+        }
+    }
+
+    private CurrencyIndex() {
+    }
+
+    /**
+     * Number of ordinals, i.e. the length of any array addressed by this index.
+     */
+    public static int size() {
+        return CODES.length;
+    }
+
+    /**
+     * Returns the ordinal of an upper-case three-letter code, or -1 if the code is not in the table.
+     */
+    public static int ordinalOf(String code) {
+        if (code == null) {
+            return -1;
+        }
+        int slot = slot(code);
+        return slot < 0 ? -1 : ORDINALS[slot];
+    }
+
+    public static String codeOf(int ordinal) {
+        return CODES[ordinal];
+    }
+
+    private static int slot(CharSequence code) {
+        if (code.length() != 3) {
+            return -1;
+        }
+        int a = code.charAt(0) - 'A';
+        int b = code.charAt(1) - 'A';
+        int c = code.charAt(2) - 'A';
+        if ((a | b | c) < 0 || a >= 26 || b >= 26 || c >= 26) {
+            return -1;
+        }
+        return (a * 26 + b) * 26 + c;
+    }
+}
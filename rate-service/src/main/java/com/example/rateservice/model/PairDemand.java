@@ -0,0 +1,46 @@
+package com.example.rateservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Estimated recent request count for one currency pair")
+public class PairDemand {
+
+    @Schema(description = "Source currency code", example = "USD")
+    private String from;
+
+    @Schema(description = "Target currency code", example = "EUR")
+    private String to;
+
+    @Schema(description = "Estimated requests, with older traffic progressively halved", example = "1250")
+    private long requests;
+
+    public PairDemand(String from, String to, long requests) {
+        this.from = from;
+        this.to = to;
+        this.requests = requests;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public void setRequests(long requests) {
+        this.requests = requests;
+    }
+}
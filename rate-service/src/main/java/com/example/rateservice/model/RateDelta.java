@@ -0,0 +1,125 @@
+package com.example.rateservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Schema(description = "Change to one cached rate table, pushed on the rate update stream")
+public class RateDelta {
+
+    @Schema(description = "Base currency of the table", example = "USD")
+    private String base;
+
+    @Schema(description = "Unix time of the upstream update the table was taken from", example = "1700000001")
+    private long lastUpdated;
+
+    @Schema(description = "Unix time until which the table is current: the next scheduled upstream update, "
+            + "or later for a table whose rates have been stable", example = "1700086401")
+    private long nextUpdate;
+
+    @Schema(description = "True when rates holds the complete table and replaces any previous copy", example = "false")
+    private boolean full;
+
+    @Schema(description = "Position of this update on the stream; increases with every update sent", example = "42")
+    private long sequence;
+
+    @Schema(description = "Sequence of the update to the same table that this delta applies to. A subscriber whose copy "
+            + "has a different sequence has missed an update and must resubscribe for a full copy", example = "37")
+    private long previousSequence;
+
+    @Schema(description = "Rates against the base that changed, keyed by currency code", example = "{\"EUR\": 0.85}")
+    private Map<String, BigDecimal> rates;
+
+    public RateDelta(String base, long lastUpdated, long nextUpdate, boolean full, Map<String, BigDecimal> rates) {
+        this.base = base;
+        this.lastUpdated = lastUpdated;
+        this.nextUpdate = nextUpdate;
+        this.full = full;
+        this.rates = rates;
+    }
+
+    /**
+     * Builds the delta that turns {@code previous} into {@code current}. Without a previous table, or when a
+     * currency has disappeared from it, the complete current table is sent instead.
+     */
+    public static RateDelta between(RateSnapshot previous, RateSnapshot current) {
+        boolean full = previous == null || !previous.getBaseCode().equals(current.getBaseCode());
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < CurrencyIndex.size() && !full; ordinal++) {
+            long before = previous.scaledRate(ordinal);
+            long after = current.scaledRate(ordinal);
+            if (before != 0 && after == 0) {
+                full = true;
+            } else if (before != after) {
+                rates.put(CurrencyIndex.codeOf(ordinal), BigDecimal.valueOf(after, RateSnapshot.SCALE).stripTrailingZeros());
+            }
+        }
+        if (full) {
+            rates.clear();
+            for (int ordinal = 0; ordinal < CurrencyIndex.size(); ordinal++) {
+                long rate = current.scaledRate(ordinal);
+                if (rate != 0) {
+                    rates.put(CurrencyIndex.codeOf(ordinal), BigDecimal.valueOf(rate, RateSnapshot.SCALE).stripTrailingZeros());
+                }
+            }
+        }
+        return new RateDelta(current.getBaseCode(), current.getTimeLastUpdateUnix(), current.getTimeNextUpdateUnix(), full, rates);
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public void setBase(String base) {
+        this.base = base;
+    }
+
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(long lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    public long getNextUpdate() {
+        return nextUpdate;
+    }
+
+    public void setNextUpdate(long nextUpdate) {
+        this.nextUpdate = nextUpdate;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public long getPreviousSequence() {
+        return previousSequence;
+    }
+
+    public void setPreviousSequence(long previousSequence) {
+        this.previousSequence = previousSequence;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public Map<String, BigDecimal> getRates() {
+        return rates;
+    }
+
+    public void setRates(Map<String, BigDecimal> rates) {
+        this.rates = rates;
+    }
+}
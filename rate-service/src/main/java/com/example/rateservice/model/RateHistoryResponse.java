@@ -0,0 +1,83 @@
+package com.example.rateservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Historical exchange rates between two currencies over a time range")
+public class RateHistoryResponse {
+
+    @Schema(description = "Source currency code", example = "USD")
+    private String from;
+
+    @Schema(description = "Target currency code", example = "EUR")
+    private String to;
+
+    @Schema(description = "Start of the range, unix seconds (inclusive)", example = "1672531200")
+    private long start;
+
+    @Schema(description = "End of the range, unix seconds (inclusive)", example = "1704067199")
+    private long end;
+
+    @Schema(description = "Bucket size in seconds; only the last update in each bucket is returned. 0 returns every update", example = "86400")
+    private long step;
+
+    @Schema(description = "Rates ordered by update time")
+    private List<RatePoint> points;
+
+    public RateHistoryResponse(String from, String to, long start, long end, long step, List<RatePoint> points) {
+        this.from = from;
+        this.to = to;
+        this.start = start;
+        this.end = end;
+        this.step = step;
+        this.points = points;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public void setStart(long start) {
+        this.start = start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public void setEnd(long end) {
+        this.end = end;
+    }
+
+    public long getStep() {
+        return step;
+    }
+
+    public void setStep(long step) {
+        this.step = step;
+    }
+
+    public List<RatePoint> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<RatePoint> points) {
+        this.points = points;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.rateservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+
+@Schema(description = "Exchange rate as published by one upstream update")
+public class RatePoint {
+
+    @Schema(description = "Unix time of the upstream update", example = "1700000001")
+    private long time;
+
+    @Schema(description = "Exchange rate value", example = "0.85")
+    private BigDecimal rate;
+
+    public RatePoint(long time, BigDecimal rate) {
+        this.time = time;
+        this.rate = rate;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public void setTime(long time) {
+        this.time = time;
+    }
+
+    public BigDecimal getRate() {
+        return rate;
+    }
+
+    public void setRate(BigDecimal rate) {
+        this.rate = rate;
+    }
+}
@@ -15,12 +15,29 @@ public class RateResponse {
     @Schema(description = "Exchange rate value", example = "0.85")
     private BigDecimal rate;
 
+    @Schema(description = "Unix time of the upstream update the rate was taken from", example = "1700000001")
+    private long lastUpdated;
+
+    @Schema(description = "Unix time until which the rate is current: the next scheduled upstream update, "
+            + "or later for a table whose rates have been stable", example = "1700086401")
+    private long nextUpdate;
+
+    @Schema(description = "True when the rate comes from an expired table served while the upstream API is unavailable", example = "false")
+    private boolean stale;
+
     public RateResponse(String from, String to, BigDecimal rate) {
         this.from = from;
         this.to = to;
         this.rate = rate;
     }
 
+    public RateResponse(String from, String to, BigDecimal rate, long lastUpdated, long nextUpdate, boolean stale) {
+        this(from, to, rate);
+        this.lastUpdated = lastUpdated;
+        this.nextUpdate = nextUpdate;
+        this.stale = stale;
+    }
+
     public String getFrom() {
         return from;
     }
@@ -44,4 +61,28 @@ public class RateResponse {
     public void setRate(BigDecimal rate) {
         this.rate = rate;
     }
+
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(long lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    public long getNextUpdate() {
+        return nextUpdate;
+    }
+
+    public void setNextUpdate(long nextUpdate) {
+        this.nextUpdate = nextUpdate;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
 }
\ No newline at end of file
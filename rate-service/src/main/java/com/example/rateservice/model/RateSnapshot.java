@@ -0,0 +1,136 @@
+package com.example.rateservice.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable, compact copy of one upstream rate table.
+ *
+ * <p>Rates are held in a {@code long[]} addressed by {@link CurrencyIndex} ordinals as fixed-point
+ * values with {@value #SCALE} decimal places. Upstream rates with up to {@value #SCALE} decimals are
+ * stored exactly; finer digits are rounded half-up. The largest representable rate is roughly
+ * 9.2e8, far above any real quote. A slot value of 0 means the currency is not in the table.
+ */
+public final class RateSnapshot {
+
+    public static final int SCALE = 10;
+    public static final long ONE = 10_000_000_000L;
+
+    private static final BigDecimal MAX_RATE = BigDecimal.valueOf(Long.MAX_VALUE, SCALE);
+
+    private final String baseCode;
+    private final long timeLastUpdateUnix;
+    private final long timeNextUpdateUnix;
+    private final long[] scaledRates;
+
+    private RateSnapshot(String baseCode, long timeLastUpdateUnix, long timeNextUpdateUnix, long[] scaledRates) {
+        this.baseCode = baseCode;
+        this.timeLastUpdateUnix = timeLastUpdateUnix;
+        this.timeNextUpdateUnix = timeNextUpdateUnix;
+        this.scaledRates = scaledRates;
+    }
+
+    public static RateSnapshot fromResponse(ExchangeRateResponse response) {
+        Builder builder = builder(response.getBase_code(),
+                response.getTime_last_update_unix(), response.getTime_next_update_unix());
+        response.getConversion_rates().forEach(builder::rate);
+        return builder.build();
+    }
+
+    public static Builder builder(String baseCode, long timeLastUpdateUnix, long timeNextUpdateUnix) {
+        return new Builder(baseCode, timeLastUpdateUnix, timeNextUpdateUnix);
+    }
+
+    public String getBaseCode() {
+        return baseCode;
+    }
+
+    public long getTimeLastUpdateUnix() {
+        return timeLastUpdateUnix;
+    }
+
+    public long getTimeNextUpdateUnix() {
+        return timeNextUpdateUnix;
+    }
+
+    /**
+     * Returns the fixed-point rate stored at the given ordinal, or 0 if the table has no such currency.
+     */
+    public long scaledRate(int ordinal) {
+        return scaledRates[ordinal];
+    }
+
+    public boolean contains(String code) {
+        int ordinal = CurrencyIndex.ordinalOf(code);
+        return ordinal >= 0 && scaledRates[ordinal] != 0;
+    }
+
+    /**
+     * Returns the rate of the given currency against the base, or {@code null} if it is not in the table.
+     */
+    public BigDecimal rate(String code) {
+        int ordinal = CurrencyIndex.ordinalOf(code);
+        if (ordinal < 0 || scaledRates[ordinal] == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(scaledRates[ordinal], SCALE).stripTrailingZeros();
+    }
+
+    /**
+     * Number of currencies quoted in this table.
+     */
+    public int size() {
+        int count = 0;
+        for (long rate : scaledRates) {
+            if (rate != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static final class Builder {
+
+        private final String baseCode;
+        private final long timeLastUpdateUnix;
+        private final long timeNextUpdateUnix;
+        private final long[] scaledRates = new long[CurrencyIndex.size()];
+
+        private Builder(String baseCode, long timeLastUpdateUnix, long timeNextUpdateUnix) {
+            this.baseCode = baseCode;
+            this.timeLastUpdateUnix = timeLastUpdateUnix;
+            this.timeNextUpdateUnix = timeNextUpdateUnix;
+        }
+
+        /**
+         * Records a rate; codes outside {@link CurrencyIndex} and non-positive or out-of-range rates are ignored.
+         */
+        public Builder rate(String code, BigDecimal rate) {
+            int ordinal = CurrencyIndex.ordinalOf(code);
+            if (ordinal < 0 || rate == null || rate.signum() <= 0 || rate.compareTo(MAX_RATE) > 0) {
+                return this;
+            }
+            return scaledRate(ordinal, rate.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+        }
+
+        public Builder scaledRate(int ordinal, long scaledRate) {
+            scaledRates[ordinal] = scaledRate;
+            return this;
+        }
+
+        public RateSnapshot build() {
+            // The base always converts to itself at exactly one, whether or not upstream listed it
+            int baseOrdinal = CurrencyIndex.ordinalOf(baseCode);
+            if (baseOrdinal >= 0) {
+                scaledRates[baseOrdinal] = ONE;
+            }
+            return new RateSnapshot(baseCode, timeLastUpdateUnix, timeNextUpdateUnix, scaledRates.clone());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RateSnapshot{base=" + baseCode + ", lastUpdate=" + timeLastUpdateUnix
+                + ", nextUpdate=" + timeNextUpdateUnix + ", currencies=" + size() + "}";
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.rateservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Schema(description = "Response containing exchange rates from one source currency to several targets")
+public class RatesResponse {
+
+    @Schema(description = "Source currency code", example = "USD")
+    private String from;
+
+    @Schema(description = "Unix time of the upstream update every rate in this response was taken from", example = "1700000001")
+    private long lastUpdated;
+
+    @Schema(description = "Exchange rates keyed by target currency code", example = "{\"EUR\": 0.85, \"GBP\": 0.75}")
+    private Map<String, BigDecimal> rates;
+
+    @Schema(description = "True when the rates come from an expired table served while the upstream API is unavailable", example = "false")
+    private boolean stale;
+
+    public RatesResponse(String from, long lastUpdated, Map<String, BigDecimal> rates) {
+        this.from = from;
+        this.lastUpdated = lastUpdated;
+        this.rates = rates;
+    }
+
+    public RatesResponse(String from, long lastUpdated, Map<String, BigDecimal> rates, boolean stale) {
+        this(from, lastUpdated, rates);
+        this.stale = stale;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(long lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    public Map<String, BigDecimal> getRates() {
+        return rates;
+    }
+
+    public void setRates(Map<String, BigDecimal> rates) {
+        this.rates = rates;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+}
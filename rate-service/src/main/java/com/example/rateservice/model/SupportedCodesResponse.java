@@ -0,0 +1,27 @@
+package com.example.rateservice.model;
+
+import java.util.List;
+
+/**
+ * Body of the upstream {@code /codes} endpoint: each entry is a {@code [code, name]} pair.
+ */
+public class SupportedCodesResponse {
+    private String result;
+    private List<List<String>> supported_codes;
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public List<List<String>> getSupported_codes() {
+        return supported_codes;
+    }
+
+    public void setSupported_codes(List<List<String>> supported_codes) {
+        this.supported_codes = supported_codes;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.rateservice.provider;
+
+import com.example.rateservice.model.RateSnapshot;
+import com.example.rateservice.service.RateTableParser;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Fetches {@code <baseUrl>/<key>/latest/<BASE>} from an exchangerate-api style endpoint, e.g.
+ * {@code https://v6.exchangerate-api.com/v6}, or {@code <baseUrl>/latest/<BASE>} from a keyless one such as
+ * {@code https://open.er-api.com/v6}, and decodes the body as it streams in. The key and base are passed as
+ * URI template variables so they never appear in the {@code uri} tag of client request metrics.
+ */
+public class ExchangeRateApiProvider implements RateProvider {
+
+    private final String name;
+    private final WebClient webClient;
+    private final String latestUriTemplate;
+    private final String apiKey;
+
+    /**
+     * @param apiKey the API key, or {@code null} for a keyless endpoint
+     */
+    public ExchangeRateApiProvider(String name, WebClient webClient, String baseUrl, String apiKey) {
+        this.name = name;
+        this.webClient = webClient;
+        this.latestUriTemplate = apiKey == null ? baseUrl + "/latest/{base}" : baseUrl + "/{key}/latest/{base}";
+        this.apiKey = apiKey;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Mono<RateSnapshot> fetchLatest(String baseCurrency) {
+        return Mono.defer(() -> {
+            Flux<DataBuffer> body = webClient.get()
+                    .uri(latestUriTemplate, uriVariables(baseCurrency))
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class);
+            return RateTableParser.parse(body);
+        });
+    }
+
+    private Object[] uriVariables(String baseCurrency) {
+        return apiKey == null ? new Object[] {baseCurrency} : new Object[] {apiKey, baseCurrency};
+    }
+}
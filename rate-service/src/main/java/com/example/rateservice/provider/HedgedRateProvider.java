@@ -0,0 +1,98 @@
+package com.example.rateservice.provider;
+
+import com.example.rateservice.model.RateSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+
+/**
+ * Sends every fetch to the primary provider and, if it has not answered within its rolling p95
+ * latency (or has already failed), sends the same fetch to the secondary provider. The first valid
+ * table wins and the other call is cancelled. Only the slowest few percent of fetches are hedged,
+ * so the extra load on the secondary stays small while the tail latency is cut.
+ */
+public class HedgedRateProvider implements RateProvider {
+
+    private final RateProvider primary;
+    private final RateProvider secondary;
+    private final RollingLatency primaryLatency;
+    private final Duration initialDelay;
+    private final Duration minDelay;
+    private final int minSamples;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+
+    public HedgedRateProvider(
+            RateProvider primary,
+            RateProvider secondary,
+            MeterRegistry meterRegistry,
+            int windowSize,
+            int minSamples,
+            Duration initialDelay,
+            Duration minDelay) {
+        this.primary = primary;
+        this.secondary = secondary;
+        this.primaryLatency = new RollingLatency(windowSize);
+        this.minSamples = minSamples;
+        this.initialDelay = initialDelay;
+        this.minDelay = minDelay;
+        this.hedges = Counter.builder("rate.fetch.hedges")
+                .description("Fetches also sent to the secondary rate provider")
+                .tag("provider", secondary.name())
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("rate.fetch.hedge.wins")
+                .description("Hedged fetches answered first by the secondary rate provider")
+                .tag("provider", secondary.name())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return primary.name() + "+" + secondary.name();
+    }
+
+    @Override
+    public Mono<RateSnapshot> fetchLatest(String baseCurrency) {
+        return Mono.defer(() -> {
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            Mono<RateSnapshot> first = timed(primary.fetchLatest(baseCurrency))
+                    .doOnError(error -> primaryFailed.tryEmitEmpty());
+            Mono<RateSnapshot> second = Mono.firstWithSignal(Mono.delay(hedgeDelay()).then(), primaryFailed.asMono())
+                    .then(Mono.defer(() -> {
+                        hedges.increment();
+                        return secondary.fetchLatest(baseCurrency);
+                    }))
+                    .doOnNext(snapshot -> hedgeWins.increment());
+
+            return Mono.firstWithValue(first, second)
+                    .onErrorMap(NoSuchElementException.class,
+                            error -> new IllegalStateException("No rate provider returned a table for " + baseCurrency, error));
+        });
+    }
+
+    /**
+     * Delay before the secondary is asked: the primary's p95 latency, or a fixed delay until enough samples exist.
+     */
+    Duration hedgeDelay() {
+        if (primaryLatency.count() < minSamples) {
+            return initialDelay;
+        }
+        Duration p95 = Duration.ofNanos(primaryLatency.percentile(0.95));
+        return p95.compareTo(minDelay) < 0 ? minDelay : p95;
+    }
+
+    private Mono<RateSnapshot> timed(Mono<RateSnapshot> fetch) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            // A primary call cancelled because the secondary won took at least this long, which keeps
+            // a primary that keeps losing from dragging its p95 (and the hedge delay) down
+            return fetch
+                    .doOnSuccess(snapshot -> primaryLatency.record(System.nanoTime() - started))
+                    .doOnCancel(() -> primaryLatency.record(System.nanoTime() - started));
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.rateservice.provider;
+
+import com.example.rateservice.model.RateSnapshot;
+import com.example.rateservice.service.QuotaBudget;
+import reactor.core.publisher.Mono;
+
+/**
+ * Counts every fetch against the monthly {@link QuotaBudget} and refuses fetches once it is used up.
+ */
+public class QuotaLimitedRateProvider implements RateProvider {
+
+    private final RateProvider delegate;
+    private final QuotaBudget quotaBudget;
+
+    public QuotaLimitedRateProvider(RateProvider delegate, QuotaBudget quotaBudget) {
+        this.delegate = delegate;
+        this.quotaBudget = quotaBudget;
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public Mono<RateSnapshot> fetchLatest(String baseCurrency) {
+        return Mono.defer(() -> quotaBudget.tryConsume()
+                ? delegate.fetchLatest(baseCurrency)
+                : Mono.error(new IllegalStateException("Monthly quota of " + delegate.name() + " is used up")));
+    }
+}
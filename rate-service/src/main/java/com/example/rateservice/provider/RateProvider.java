@@ -0,0 +1,21 @@
+package com.example.rateservice.provider;
+
+import com.example.rateservice.model.RateSnapshot;
+import reactor.core.publisher.Mono;
+
+/**
+ * Source of upstream rate tables.
+ */
+public interface RateProvider {
+
+    /**
+     * Short name of the provider, used in logs and metrics.
+     */
+    String name();
+
+    /**
+     * Fetches the latest rate table for the given base currency. The returned {@link Mono} emits one
+     * snapshot or fails; nothing is requested before it is subscribed.
+     */
+    Mono<RateSnapshot> fetchLatest(String baseCurrency);
+}
@@ -0,0 +1,71 @@
+package com.example.rateservice.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Active with the {@code upstream-record} profile: passes upstream calls through unchanged and saves every
+ * successful {@code /latest/{base}} and {@code /codes} response body to the recordings directory, replacing
+ * the previous recording, so {@link ReplayExchangeFilter} can serve them later without network access.
+ */
+@Component
+@Profile("upstream-record")
+public class RecordingExchangeFilter implements ExchangeFilterFunction {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordingExchangeFilter.class);
+
+    private final Path directory;
+
+    public RecordingExchangeFilter(@Value("${exchangerate.stub.directory:upstream-recordings}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        Path file = UpstreamRecordings.fileFor(directory, request.url());
+        if (file == null) {
+            return next.exchange(request);
+        }
+        return next.exchange(request).flatMap(response -> {
+            if (!response.statusCode().is2xxSuccessful()) {
+                return Mono.just(response);
+            }
+            // The body is buffered once so it can be both saved and handed on to the caller
+            return response.bodyToMono(String.class)
+                    .defaultIfEmpty("")
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(body -> {
+                        save(file, body);
+                        return response.mutate().body(body).build();
+                    });
+        });
+    }
+
+    private void save(Path file, String body) {
+        try {
+            Files.createDirectories(directory);
+            Path partial = file.resolveSibling(file.getFileName() + ".partial");
+            Files.writeString(partial, body, StandardCharsets.UTF_8);
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Recorded upstream response to {}", file);
+        } catch (IOException e) {
+            logger.warn("Could not record upstream response to {}: {}", file, e.getMessage());
+        }
+    }
+}
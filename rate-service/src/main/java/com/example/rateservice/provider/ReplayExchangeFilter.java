@@ -0,0 +1,201 @@
+package com.example.rateservice.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Active with the {@code upstream-replay} profile: answers upstream calls from the files written by
+ * {@link RecordingExchangeFilter} instead of the network, so the fetch, parse and cache pipeline can be
+ * benchmarked offline and without spending API quota. Bodies are streamed in {@code chunk-bytes} pieces,
+ * like a network response would be, after {@code latency-ms} plus up to {@code latency-jitter-ms}.
+ * A fraction {@code error-rate} of calls is answered with {@code error-status} instead, and bases with
+ * no recording get the upstream's {@code unsupported-code} error.
+ *
+ * <p>With {@code shift-timestamps} the recorded {@code time_last_update_unix} and
+ * {@code time_next_update_unix} are moved forward by whole update intervals so the replayed table is
+ * current, rather than expired the moment it is cached. With {@code expire-immediately} the replayed
+ * {@code time_next_update_unix} is the moment of the call instead, so rate-service never serves the table
+ * from its cache and every request goes through a replayed call, as load tests want.
+ */
+@Component
+@Profile("upstream-replay")
+public class ReplayExchangeFilter implements ExchangeFilterFunction {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayExchangeFilter.class);
+
+    private static final Pattern LAST_UPDATE = Pattern.compile("(\"time_last_update_unix\"\\s*:\\s*)(\\d+)");
+    private static final Pattern NEXT_UPDATE = Pattern.compile("(\"time_next_update_unix\"\\s*:\\s*)(\\d+)");
+    private static final byte[] UNSUPPORTED_CODE =
+            "{\"result\":\"error\",\"error-type\":\"unsupported-code\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final Path directory;
+    private final Duration latency;
+    private final long latencyJitterMillis;
+    private final double errorRate;
+    private final HttpStatus errorStatus;
+    private final int chunkBytes;
+    private final boolean shiftTimestamps;
+    private final boolean expireImmediately;
+    private final Clock clock;
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private final Map<Path, Recording> recordings = new ConcurrentHashMap<>();
+
+    public ReplayExchangeFilter(
+            @Value("${exchangerate.stub.directory:upstream-recordings}") String directory,
+            @Value("${exchangerate.stub.latency-ms:0}") long latencyMillis,
+            @Value("${exchangerate.stub.latency-jitter-ms:0}") long latencyJitterMillis,
+            @Value("${exchangerate.stub.error-rate:0}") double errorRate,
+            @Value("${exchangerate.stub.error-status:503}") int errorStatus,
+            @Value("${exchangerate.stub.chunk-bytes:8192}") int chunkBytes,
+            @Value("${exchangerate.stub.shift-timestamps:true}") boolean shiftTimestamps,
+            @Value("${exchangerate.stub.expire-immediately:false}") boolean expireImmediately) {
+        this(Paths.get(directory), Duration.ofMillis(latencyMillis), latencyJitterMillis, errorRate,
+                HttpStatus.valueOf(errorStatus), chunkBytes, shiftTimestamps, expireImmediately, Clock.systemUTC());
+    }
+
+    ReplayExchangeFilter(Path directory, Duration latency, long latencyJitterMillis, double errorRate,
+                         HttpStatus errorStatus, int chunkBytes, boolean shiftTimestamps, boolean expireImmediately,
+                         Clock clock) {
+        this.directory = directory;
+        this.latency = latency;
+        this.latencyJitterMillis = latencyJitterMillis;
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+        this.chunkBytes = Math.max(1, chunkBytes);
+        this.shiftTimestamps = shiftTimestamps;
+        this.expireImmediately = expireImmediately;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Mono<ClientResponse> response;
+            if (errorRate > 0 && random.nextDouble() < errorRate) {
+                response = Mono.just(ClientResponse.create(errorStatus).build());
+            } else {
+                Path file = UpstreamRecordings.fileFor(directory, request.url());
+                // Only recordings that could be read are kept, so a file added or fixed later is picked up
+                Recording recording = file == null ? null : recordings.computeIfAbsent(file, this::load);
+                byte[] body = recording == null ? null : recording.body(clock, shiftTimestamps);
+                if (body != null && expireImmediately) {
+                    body = expiringNow(body);
+                }
+                response = Mono.just(body != null
+                        ? respond(HttpStatus.OK, body)
+                        : respond(HttpStatus.NOT_FOUND, UNSUPPORTED_CODE));
+            }
+            Duration delay = latencyJitterMillis > 0
+                    ? latency.plusMillis(random.nextLong(latencyJitterMillis + 1))
+                    : latency;
+            return delay.isZero() ? response : response.delayElement(delay);
+        });
+    }
+
+    private byte[] expiringNow(byte[] body) {
+        String json = new String(body, StandardCharsets.UTF_8);
+        return NEXT_UPDATE.matcher(json).replaceFirst("$1" + clock.instant().getEpochSecond()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private ClientResponse respond(HttpStatus status, byte[] body) {
+        int chunks = (body.length + chunkBytes - 1) / chunkBytes;
+        Flux<DataBuffer> content = Flux.range(0, chunks).map(chunk -> {
+            int offset = chunk * chunkBytes;
+            return bufferFactory.wrap(ByteBuffer.wrap(body, offset, Math.min(chunkBytes, body.length - offset)));
+        });
+        return ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(content)
+                .build();
+    }
+
+    private Recording load(Path file) {
+        try {
+            Recording recording = new Recording(Files.readString(file, StandardCharsets.UTF_8));
+            logger.info("Replaying upstream responses from {}", file);
+            return recording;
+        } catch (NoSuchFileException e) {
+            logger.debug("No recording at {}, answering as an unsupported code", file);
+        } catch (IOException e) {
+            logger.warn("Could not read recording {}: {}", file, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * One recorded body, with the copy whose timestamps were last shifted kept until the next interval.
+     */
+    static final class Recording {
+
+        private final String template;
+        private final byte[] recorded;
+        private final long lastUpdate;
+        private final long interval;
+        private volatile Shifted shifted;
+
+        Recording(String template) {
+            this.template = template;
+            this.recorded = template.getBytes(StandardCharsets.UTF_8);
+            this.lastUpdate = timestamp(LAST_UPDATE, template);
+            this.interval = timestamp(NEXT_UPDATE, template) - lastUpdate;
+        }
+
+        byte[] body(Clock clock, boolean shiftTimestamps) {
+            if (!shiftTimestamps || lastUpdate <= 0 || interval <= 0) {
+                return recorded;
+            }
+            long intervals = Math.floorDiv(clock.instant().getEpochSecond() - lastUpdate, interval);
+            if (intervals <= 0) {
+                return recorded;
+            }
+            Shifted current = shifted;
+            if (current == null || current.intervals() != intervals) {
+                long shiftedLast = lastUpdate + intervals * interval;
+                String body = LAST_UPDATE.matcher(template).replaceFirst("$1" + shiftedLast);
+                body = NEXT_UPDATE.matcher(body).replaceFirst("$1" + (shiftedLast + interval));
+                current = new Shifted(intervals, body.getBytes(StandardCharsets.UTF_8));
+                shifted = current;
+            }
+            return current.body();
+        }
+
+        private static long timestamp(Pattern pattern, String body) {
+            Matcher matcher = pattern.matcher(body);
+            return matcher.find() ? Long.parseLong(matcher.group(2)) : 0;
+        }
+
+        private record Shifted(long intervals, byte[] body) {
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.rateservice.provider;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size window of the most recent latency samples, in nanoseconds.
+ */
+final class RollingLatency {
+
+    private final long[] samples;
+    private int count;
+    private int next;
+
+    RollingLatency(int windowSize) {
+        this.samples = new long[Math.max(1, windowSize)];
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    /**
+     * Returns the given percentile (0 to 1) of the samples in the window, or -1 if there are none.
+     */
+    synchronized long percentile(double percentile) {
+        if (count == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.rateservice.provider;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maps upstream request URLs to files in the recordings directory shared by {@link RecordingExchangeFilter}
+ * and {@link ReplayExchangeFilter}. File names never contain the API key that is part of the request path:
+ * {@code .../latest/USD} becomes {@code latest-USD.json} and {@code .../codes} becomes {@code codes.json}.
+ */
+final class UpstreamRecordings {
+
+    private static final Pattern LATEST = Pattern.compile("/latest/([A-Za-z]{3})$");
+
+    private UpstreamRecordings() {
+    }
+
+    /**
+     * Returns the recording file for the URL, or {@code null} if requests to it are not recorded.
+     */
+    static Path fileFor(Path directory, URI url) {
+        String path = url.getPath();
+        Matcher latest = LATEST.matcher(path);
+        if (latest.find()) {
+            return directory.resolve("latest-" + latest.group(1).toUpperCase(Locale.ROOT) + ".json");
+        }
+        if (path.endsWith("/codes")) {
+            return directory.resolve("codes.json");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.rateservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Per-month count of upstream API calls in {@code upstream_quota_usage}, shared by all rate-service instances.
+ */
+@Repository
+public class QuotaUsageRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QuotaUsageRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long findCalls(String period) {
+        List<Long> calls = jdbcTemplate.queryForList(
+            "SELECT calls FROM upstream_quota_usage WHERE period = ?", Long.class, period);
+        return calls.isEmpty() ? 0 : calls.get(0);
+    }
+
+    /**
+     * Adds calls to the period's counter and returns the new total.
+     */
+    public long increment(String period, long calls) {
+        Long total = jdbcTemplate.queryForObject(
+            "INSERT INTO upstream_quota_usage (period, calls) VALUES (?, ?) "
+                + "ON CONFLICT (period) DO UPDATE "
+                + "SET calls = upstream_quota_usage.calls + EXCLUDED.calls, updated_at = CURRENT_TIMESTAMP "
+                + "RETURNING calls",
+            Long.class, period, calls);
+        return total == null ? 0 : total;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.rateservice.repository;
+
+import com.example.rateservice.model.CurrencyIndex;
+import com.example.rateservice.model.RateSnapshot;
+import com.example.rateservice.service.RateTableParser;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Stores fetched rate tables in {@code rate_snapshots}. The payload column holds the table in the
+ * upstream {@code /latest} JSON shape, so it is read back through the same {@link RateTableParser}.
+ */
+@Repository
+public class RateSnapshotRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RateSnapshotRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void save(RateSnapshot snapshot) {
+        jdbcTemplate.update(
+            "INSERT INTO rate_snapshots (base_code, time_last_update_unix, time_next_update_unix, payload) "
+                + "VALUES (?, ?, ?, ?) "
+                + "ON CONFLICT (base_code, time_last_update_unix) DO UPDATE "
+                + "SET time_next_update_unix = EXCLUDED.time_next_update_unix, payload = EXCLUDED.payload",
+            snapshot.getBaseCode(),
+            snapshot.getTimeLastUpdateUnix(),
+            snapshot.getTimeNextUpdateUnix(),
+            toPayload(snapshot)
+        );
+    }
+
+    /**
+     * Returns the newest snapshot of every base whose next upstream update is still after the given time.
+     */
+    public List<RateSnapshot> findLatestValid(long validAfterEpochSecond) {
+        return jdbcTemplate.query(
+            "SELECT DISTINCT ON (base_code) payload FROM rate_snapshots "
+                + "WHERE time_next_update_unix > ? "
+                + "ORDER BY base_code, time_last_update_unix DESC",
+            (rs, rowNum) -> fromPayload(rs.getString("payload")),
+            validAfterEpochSecond
+        );
+    }
+
+    /**
+     * Streams every snapshot updated at or after the given time to the action, ordered by base and then update time.
+     */
+    public void forEachSince(long sinceEpochSecond, Consumer<RateSnapshot> action) {
+        jdbcTemplate.query(
+            "SELECT payload FROM rate_snapshots "
+                + "WHERE time_last_update_unix >= ? "
+                + "ORDER BY base_code, time_last_update_unix",
+            (RowCallbackHandler) rs -> action.accept(fromPayload(rs.getString("payload"))),
+            sinceEpochSecond
+        );
+    }
+
+    static String toPayload(RateSnapshot snapshot) {
+        StringBuilder json = new StringBuilder(4096)
+            .append("{\"base_code\":\"").append(snapshot.getBaseCode()).append('"')
+            .append(",\"time_last_update_unix\":").append(snapshot.getTimeLastUpdateUnix())
+            .append(",\"time_next_update_unix\":").append(snapshot.getTimeNextUpdateUnix())
+            .append(",\"conversion_rates\":{");
+        boolean first = true;
+        for (int ordinal = 0; ordinal < CurrencyIndex.size(); ordinal++) {
+            long rate = snapshot.scaledRate(ordinal);
+            if (rate == 0) {
+                continue;
+            }
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append('"').append(CurrencyIndex.codeOf(ordinal)).append("\":")
+                .append(BigDecimal.valueOf(rate, RateSnapshot.SCALE).stripTrailingZeros().toPlainString());
+        }
+        return json.append("}}").toString();
+    }
+
+    static RateSnapshot fromPayload(String payload) {
+        return RateTableParser.parse(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
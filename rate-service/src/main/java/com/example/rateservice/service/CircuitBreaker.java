@@ -0,0 +1,103 @@
+package com.example.rateservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+
+/**
+ * Circuit breaker guarding calls to the upstream exchange-rate API.
+ * After a configurable number of consecutive failures the circuit opens and calls are refused
+ * without touching the network. Once the open period has elapsed a limited number of probe calls
+ * are let through; a successful probe closes the circuit again, a failed one re-opens it.
+ */
+@Component
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final Clock clock;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final int halfOpenProbes;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private int probesInFlight;
+
+    @Autowired
+    public CircuitBreaker(
+            @Value("${exchangerate.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${exchangerate.circuit-breaker.open-seconds:30}") long openSeconds,
+            @Value("${exchangerate.circuit-breaker.half-open-probes:1}") int halfOpenProbes) {
+        this(Clock.systemUTC(), failureThreshold, openSeconds, halfOpenProbes);
+    }
+
+    CircuitBreaker(Clock clock, int failureThreshold, long openSeconds, int halfOpenProbes) {
+        this.clock = clock;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openSeconds * 1000;
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+    }
+
+    /**
+     * Returns whether a call may go to upstream now. Every granted permission must be followed by
+     * exactly one {@link #onSuccess()}, {@link #onFailure()} or {@link #release()}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (clock.millis() - openedAt < openMillis) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+        }
+        if (probesInFlight >= halfOpenProbes) {
+            return false;
+        }
+        probesInFlight++;
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probesInFlight = 0;
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Returns a granted permission without a verdict on upstream health, for calls that were cancelled,
+     * completed empty or failed for reasons of their own, so a half-open probe slot is not lost.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.millis();
+        probesInFlight = 0;
+    }
+}
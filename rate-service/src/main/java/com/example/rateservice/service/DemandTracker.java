@@ -0,0 +1,76 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.PairDemand;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Observed request demand per base table and per currency pair, kept in count-min sketches so memory
+ * stays fixed however many distinct (or bogus) codes are requested. Recording is lock-free. Every
+ * counter is halved on a fixed interval, so recent traffic dominates and pairs that stop being
+ * requested fade out. The hottest pairs are tracked separately so they can be listed.
+ */
+@Component
+public class DemandTracker {
+
+    private static final char PAIR_SEPARATOR = '/';
+
+    private final FrequencySketch bases;
+    private final FrequencySketch pairs;
+    private final HeavyHitters hotPairs;
+
+    public DemandTracker(
+            @Value("${exchangerate.demand.sketch-width:4096}") int sketchWidth,
+            @Value("${exchangerate.demand.sketch-depth:4}") int sketchDepth,
+            @Value("${exchangerate.demand.top-pairs-capacity:64}") int topPairsCapacity) {
+        this.bases = new FrequencySketch(sketchWidth, sketchDepth);
+        this.pairs = new FrequencySketch(sketchWidth, sketchDepth);
+        this.hotPairs = new HeavyHitters(topPairsCapacity);
+    }
+
+    public void recordBase(String baseCode) {
+        bases.increment(baseCode);
+    }
+
+    public void recordPair(String fromCurrency, String toCurrency) {
+        String key = fromCurrency + PAIR_SEPARATOR + toCurrency;
+        hotPairs.offer(key, pairs.increment(key));
+    }
+
+    /**
+     * Returns the base's estimated share of all observed demand, between 0 and 1.
+     */
+    public double share(String baseCode) {
+        long total = bases.total();
+        return total > 0 ? Math.min(1.0, (double) bases.estimate(baseCode) / total) : 0;
+    }
+
+    /**
+     * Returns up to {@code limit} of the most requested pairs, hottest first.
+     */
+    public List<PairDemand> topPairs(int limit) {
+        List<PairDemand> top = new ArrayList<>();
+        for (String key : hotPairs.keys()) {
+            int separator = key.indexOf(PAIR_SEPARATOR);
+            long requests = pairs.estimate(key);
+            if (requests > 0) {
+                top.add(new PairDemand(key.substring(0, separator), key.substring(separator + 1), requests));
+            }
+        }
+        top.sort(Comparator.comparingLong(PairDemand::getRequests).reversed());
+        return top.size() > limit ? new ArrayList<>(top.subList(0, limit)) : top;
+    }
+
+    @Scheduled(fixedRateString = "${exchangerate.demand.decay-interval-ms:600000}",
+            initialDelayString = "${exchangerate.demand.decay-interval-ms:600000}")
+    public void decay() {
+        bases.halve();
+        pairs.halve();
+        hotPairs.halve();
+    }
+}
@@ -1,51 +1,311 @@
 package com.example.rateservice.service;
 
-import com.example.rateservice.model.ExchangeRateResponse;
+import com.example.rateservice.exception.UpstreamUnavailableException;
+import com.example.rateservice.model.CurrencyIndex;
+import com.example.rateservice.model.RateHistoryResponse;
+import com.example.rateservice.model.RatePoint;
 import com.example.rateservice.model.RateResponse;
+import com.example.rateservice.model.RatesResponse;
+import com.example.rateservice.model.RateSnapshot;
+import com.example.rateservice.provider.RateProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class ExchangeRateService {
 
-    private final WebClient webClient;
-    private final String apiBaseUrl;
-    private final String apiKey;
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeRateService.class);
+
+    private final RateProvider rateProvider;
+    private final RateTableCache rateTableCache;
+    private final CircuitBreaker circuitBreaker;
+    private final RateHistoryStore rateHistoryStore;
+    private final DemandTracker demandTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String pivotCurrency;
+    private final MathContext mathContext;
+    private final Duration upstreamTimeout;
+    private final SingleFlight<String, RateSnapshot> upstreamFetches = new SingleFlight<>();
 
     public ExchangeRateService(
-            WebClient webClient,
-            @Value("${exchangerate.api.base-url:https://v6.exchangerate-api.com/v6}") String apiBaseUrl,
-            @Value("${exchangerate.api.key:YOUR_API_KEY}") String apiKey) {
-        this.webClient = webClient;
-        this.apiBaseUrl = apiBaseUrl;
-        this.apiKey = apiKey;
+            RateProvider rateProvider,
+            RateTableCache rateTableCache,
+            CircuitBreaker circuitBreaker,
+            RateHistoryStore rateHistoryStore,
+            DemandTracker demandTracker,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${exchangerate.api.timeout-ms:5000}") long timeoutMillis,
+            @Value("${exchangerate.pivot-currency:USD}") String pivotCurrency,
+            @Value("${exchangerate.rate-precision:12}") int ratePrecision) {
+        this.rateProvider = rateProvider;
+        this.rateTableCache = rateTableCache;
+        this.circuitBreaker = circuitBreaker;
+        this.rateHistoryStore = rateHistoryStore;
+        this.demandTracker = demandTracker;
+        this.eventPublisher = eventPublisher;
+        this.pivotCurrency = pivotCurrency == null ? "" : pivotCurrency.trim().toUpperCase();
+        this.mathContext = new MathContext(ratePrecision, RoundingMode.HALF_EVEN);
+        this.upstreamTimeout = Duration.ofMillis(timeoutMillis);
     }
 
     public RateResponse getExchangeRate(String fromCurrency, String toCurrency) {
+        return getExchangeRateAsync(fromCurrency, toCurrency).block();
+    }
+
+    /**
+     * Non-blocking variant of {@link #getExchangeRate}: a cached table answers immediately, and a miss
+     * completes on the upstream client's event loop without parking the calling thread.
+     */
+    public Mono<RateResponse> getExchangeRateAsync(String fromCurrency, String toCurrency) {
+        if (fromCurrency == null || toCurrency == null || fromCurrency.isEmpty() || toCurrency.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Currency codes cannot be null or empty"));
+        }
+
+        demandTracker.recordPair(fromCurrency, toCurrency);
+        return rateTable(baseFor(fromCurrency)).map(snapshot -> {
+            long fromRate = scaledRate(snapshot, fromCurrency);
+            long toRate = scaledRate(snapshot, toCurrency);
+            BigDecimal rate = BigDecimal.valueOf(toRate).divide(BigDecimal.valueOf(fromRate), mathContext);
+            return new RateResponse(fromCurrency, toCurrency, rate,
+                    snapshot.getTimeLastUpdateUnix(), rateTableCache.expiresAt(snapshot), rateTableCache.isStale(snapshot));
+        });
+    }
+
+    public RatesResponse getExchangeRates(String fromCurrency, Collection<String> toCurrencies) {
+        return getExchangeRatesAsync(fromCurrency, toCurrencies).block();
+    }
+
+    /**
+     * Returns rates from one source currency to each of the given targets, all computed from the same
+     * snapshot so they reflect a single upstream update.
+     */
+    public Mono<RatesResponse> getExchangeRatesAsync(String fromCurrency, Collection<String> toCurrencies) {
+        if (fromCurrency == null || fromCurrency.isEmpty() || toCurrencies == null || toCurrencies.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Currency codes cannot be null or empty"));
+        }
+
+        for (String toCurrency : toCurrencies) {
+            demandTracker.recordPair(fromCurrency, toCurrency);
+        }
+        return rateTable(baseFor(fromCurrency)).map(snapshot -> {
+            BigDecimal fromRate = BigDecimal.valueOf(scaledRate(snapshot, fromCurrency));
+            Map<String, BigDecimal> rates = new LinkedHashMap<>();
+            for (String toCurrency : toCurrencies) {
+                BigDecimal toRate = BigDecimal.valueOf(scaledRate(snapshot, toCurrency));
+                rates.put(toCurrency, toRate.divide(fromRate, mathContext));
+            }
+            return new RatesResponse(fromCurrency, snapshot.getTimeLastUpdateUnix(), rates, rateTableCache.isStale(snapshot));
+        });
+    }
+
+    public RatesResponse getAllExchangeRates(String fromCurrency) {
+        return getAllExchangeRatesAsync(fromCurrency).block();
+    }
+
+    /**
+     * Returns rates from one source currency to every currency quoted in the current snapshot.
+     */
+    public Mono<RatesResponse> getAllExchangeRatesAsync(String fromCurrency) {
+        if (fromCurrency == null || fromCurrency.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Currency codes cannot be null or empty"));
+        }
+
+        return rateTable(baseFor(fromCurrency)).map(snapshot -> {
+            BigDecimal fromRate = BigDecimal.valueOf(scaledRate(snapshot, fromCurrency));
+            Map<String, BigDecimal> rates = new LinkedHashMap<>();
+            for (int ordinal = 0; ordinal < CurrencyIndex.size(); ordinal++) {
+                long toRate = snapshot.scaledRate(ordinal);
+                if (toRate != 0) {
+                    rates.put(CurrencyIndex.codeOf(ordinal), BigDecimal.valueOf(toRate).divide(fromRate, mathContext));
+                }
+            }
+            return new RatesResponse(fromCurrency, snapshot.getTimeLastUpdateUnix(), rates, rateTableCache.isStale(snapshot));
+        });
+    }
+
+    /**
+     * Returns the recorded rates between two currencies for updates from {@code start} to {@code end}
+     * (unix seconds, inclusive). With a positive {@code step} only the last update in each step-sized
+     * bucket, counted from {@code start}, is returned.
+     */
+    public RateHistoryResponse getRateHistory(String fromCurrency, String toCurrency, long start, long end, long step) {
         if (fromCurrency == null || toCurrency == null || fromCurrency.isEmpty() || toCurrency.isEmpty()) {
             throw new IllegalArgumentException("Currency codes cannot be null or empty");
         }
+        if (start > end) {
+            throw new IllegalArgumentException("start must not be after end");
+        }
+        if (step < 0) {
+            throw new IllegalArgumentException("step must not be negative");
+        }
+        int fromOrdinal = CurrencyIndex.ordinalOf(fromCurrency);
+        if (fromOrdinal < 0) {
+            throw new IllegalArgumentException("Invalid currency code: " + fromCurrency);
+        }
+        int toOrdinal = CurrencyIndex.ordinalOf(toCurrency);
+        if (toOrdinal < 0) {
+            throw new IllegalArgumentException("Invalid currency code: " + toCurrency);
+        }
+
+        RateHistoryStore.PairPoints history = rateHistoryStore.pairHistory(baseFor(fromCurrency), fromOrdinal, toOrdinal, start, end);
+        long[] times = history.times();
+        List<RatePoint> points = new ArrayList<>();
+        for (int i = 0; i < history.size(); i++) {
+            if (step > 0 && i + 1 < history.size() && (times[i + 1] - start) / step == (times[i] - start) / step) {
+                continue;
+            }
+            BigDecimal rate = BigDecimal.valueOf(history.toRates()[i]).divide(BigDecimal.valueOf(history.fromRates()[i]), mathContext);
+            points.add(new RatePoint(times[i], rate));
+        }
+        return new RateHistoryResponse(fromCurrency, toCurrency, start, end, step, points);
+    }
 
-        String url = String.format("%s/%s/latest/%s", apiBaseUrl, apiKey, fromCurrency);
-        
-        ExchangeRateResponse response = webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(ExchangeRateResponse.class)
+    /**
+     * Fetches a fresh table for the given base from upstream regardless of what is cached,
+     * sharing the call with any request-driven fetch already in flight.
+     */
+    public RateSnapshot refreshRateTable(String baseCurrency) {
+        return Mono.fromFuture(() -> upstreamFetches.execute(baseCurrency, () -> fetchRateTable(baseCurrency).toFuture()))
                 .block();
+    }
+
+    /**
+     * Returns the rate table base that quotes pairs from the given currency: every pair is triangulated
+     * through one pivot table, and without a pivot the source currency is the base.
+     */
+    public String baseFor(String fromCurrency) {
+        return pivotCurrency.isEmpty() ? fromCurrency : pivotCurrency;
+    }
 
-        if (response == null || response.getConversion_rates() == null) {
-            throw new RuntimeException("Failed to retrieve exchange rates");
+    private static long scaledRate(RateSnapshot snapshot, String currency) {
+        int ordinal = CurrencyIndex.ordinalOf(currency);
+        long rate = ordinal < 0 ? 0 : snapshot.scaledRate(ordinal);
+        if (rate == 0) {
+            throw new IllegalArgumentException("Invalid currency code: " + currency);
         }
+        return rate;
+    }
 
-        BigDecimal rate = response.getConversion_rates().get(toCurrency);
-        if (rate == null) {
-            throw new IllegalArgumentException("Invalid currency code: " + toCurrency);
+    private Mono<RateSnapshot> rateTable(String baseCurrency) {
+        demandTracker.recordBase(baseCurrency);
+        RateSnapshot cached = rateTableCache.get(baseCurrency);
+        if (cached != null) {
+            return Mono.just(cached);
         }
 
-        return new RateResponse(fromCurrency, toCurrency, rate);
+        Mono<RateSnapshot> load = Mono.fromFuture(() -> upstreamFetches.execute(baseCurrency, () -> loadRateTable(baseCurrency)));
+        RateSnapshot stale = rateTableCache.getStale(baseCurrency);
+        if (stale == null) {
+            return load;
+        }
+        if (circuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+            // Answer from the last known table right away and let a probe revalidate it in the background
+            load.subscribe(snapshot -> { }, error -> logger.debug("Revalidation of {} rate table failed: {}", baseCurrency, error.getMessage()));
+            return Mono.just(stale);
+        }
+        return load.onErrorResume(UpstreamUnavailableException.class, error -> Mono.just(stale));
+    }
+
+    private CompletableFuture<RateSnapshot> loadRateTable(String baseCurrency) {
+        // A concurrent load may have filled the cache between our miss and winning the single-flight slot
+        RateSnapshot cached = rateTableCache.get(baseCurrency);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return fetchRateTable(baseCurrency).toFuture();
+    }
+
+    private Mono<RateSnapshot> fetchRateTable(String baseCurrency) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return Mono.error(new UpstreamUnavailableException("Exchange rate API circuit is open"));
+        }
+
+        // Exactly one verdict per granted permission; cancelled or empty fetches hand the permission back
+        AtomicBoolean settled = new AtomicBoolean();
+        return rateProvider.fetchLatest(baseCurrency)
+                .timeout(upstreamTimeout)
+                .doOnNext(snapshot -> {
+                    if (settled.compareAndSet(false, true)) {
+                        circuitBreaker.onSuccess();
+                    }
+                    rateTableCache.put(baseCurrency, snapshot);
+                    eventPublisher.publishEvent(new RateTableUpdatedEvent(snapshot));
+                })
+                .doOnError(error -> {
+                    if (!settled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    if (isUpstreamFailure(error)) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.release();
+                    }
+                })
+                .doFinally(signal -> {
+                    if (settled.compareAndSet(false, true)) {
+                        circuitBreaker.release();
+                    }
+                })
+                .onErrorMap(error -> !(error instanceof IllegalArgumentException),
+                        error -> new UpstreamUnavailableException("Failed to retrieve exchange rates: " + error.getMessage(), error));
+    }
+
+    /**
+     * Tells whether an error means the upstream is unhealthy: a transport failure, a timeout or a 5xx
+     * response, possibly wrapped or suppressed by a hedged fetch. A used-up quota, a rejected request or
+     * an upstream error answer for a bad code say nothing about upstream health and do not count.
+     */
+    static boolean isUpstreamFailure(Throwable error) {
+        Deque<Throwable> pending = new ArrayDeque<>();
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        pending.push(error);
+        while (!pending.isEmpty()) {
+            Throwable current = pending.pop();
+            if (!seen.add(current)) {
+                continue;
+            }
+            if (current instanceof WebClientResponseException response) {
+                if (response.getStatusCode().is5xxServerError()) {
+                    return true;
+                }
+            } else if (current instanceof WebClientRequestException
+                    || current instanceof TimeoutException
+                    || current instanceof IOException) {
+                return true;
+            }
+            if (current.getCause() != null) {
+                pending.push(current.getCause());
+            }
+            for (Throwable suppressed : current.getSuppressed()) {
+                pending.push(suppressed);
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
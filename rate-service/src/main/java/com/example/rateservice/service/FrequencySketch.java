@@ -0,0 +1,78 @@
+package com.example.rateservice.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch of request frequencies. Keys are hashed into {@code depth} rows of {@code width}
+ * counters and a key's estimate is the smallest of its counters, which never under-counts and over-counts
+ * only by collisions. Memory is fixed by width and depth however many distinct keys are seen.
+ * Increments are lock-free; {@link #halve()} ages every counter so old traffic fades out.
+ */
+final class FrequencySketch {
+
+    private static final long[] ROW_SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+        0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL
+    };
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray counters;
+    private final AtomicLong total = new AtomicLong();
+
+    FrequencySketch(int width, int depth) {
+        this.width = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+        this.depth = Math.max(1, Math.min(ROW_SEEDS.length, depth));
+        this.counters = new AtomicLongArray(this.width * this.depth);
+    }
+
+    /**
+     * Counts one occurrence of the key and returns its new estimate.
+     */
+    long increment(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+        }
+        total.incrementAndGet();
+        return estimate;
+    }
+
+    long estimate(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    long total() {
+        return total.get();
+    }
+
+    void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+        total.getAndUpdate(count -> count >>> 1);
+    }
+
+    private int index(long hash, int row) {
+        long mixed = (hash ^ ROW_SEEDS[row]) * 0xFF51AFD7ED558CCDL;
+        mixed ^= mixed >>> 33;
+        return row * width + (int) (mixed & (width - 1));
+    }
+
+    // 64-bit FNV-1a
+    private static long hash(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+}
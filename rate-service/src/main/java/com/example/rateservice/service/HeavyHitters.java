@@ -0,0 +1,62 @@
+package com.example.rateservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-capacity set of the keys with the highest frequency estimates seen so far, so the top keys
+ * of a {@link FrequencySketch} can be listed. Keys already tracked, or below the admission threshold
+ * of a full set, are handled without locking; only a key displacing the current minimum takes the lock.
+ */
+final class HeavyHitters {
+
+    private final int capacity;
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+    private volatile long admissionThreshold;
+
+    HeavyHitters(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    void offer(String key, long estimate) {
+        if (candidates.computeIfPresent(key, (k, previous) -> estimate) != null) {
+            return;
+        }
+        if (estimate <= admissionThreshold && candidates.size() >= capacity) {
+            return;
+        }
+        admit(key, estimate);
+    }
+
+    List<String> keys() {
+        return new ArrayList<>(candidates.keySet());
+    }
+
+    synchronized void halve() {
+        candidates.replaceAll((key, estimate) -> estimate >>> 1);
+        candidates.values().removeIf(estimate -> estimate == 0);
+        admissionThreshold >>>= 1;
+    }
+
+    private synchronized void admit(String key, long estimate) {
+        if (candidates.size() >= capacity) {
+            String weakest = null;
+            long weakestEstimate = Long.MAX_VALUE;
+            for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+                if (candidate.getValue() < weakestEstimate) {
+                    weakest = candidate.getKey();
+                    weakestEstimate = candidate.getValue();
+                }
+            }
+            if (weakest == null || estimate <= weakestEstimate) {
+                admissionThreshold = weakestEstimate;
+                return;
+            }
+            candidates.remove(weakest);
+            admissionThreshold = weakestEstimate;
+        }
+        candidates.put(key, estimate);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.repository.QuotaUsageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks upstream API calls against the plan's monthly quota (calendar months, UTC).
+ *
+ * <p>Every call is added to a per-month counter in Postgres, which survives restarts and is shared by all
+ * instances; the in-memory count is loaded from it at startup. The budget is spent evenly over the month:
+ * once usage runs ahead of that pace (plus a slack) the budget reports {@link Mode#CONSERVE}, and when it
+ * is used up, {@link Mode#EXHAUSTED}. A budget of 0 means unlimited.
+ */
+@Component
+public class QuotaBudget implements ApplicationRunner {
+
+    public enum Mode { NORMAL, CONSERVE, EXHAUSTED }
+
+    private static final Logger logger = LoggerFactory.getLogger(QuotaBudget.class);
+
+    private final QuotaUsageRepository repository;
+    private final Clock clock;
+    private final long monthlyBudget;
+    private final double paceSlack;
+    private final AtomicLong used = new AtomicLong();
+    private YearMonth period;
+
+    @Autowired
+    public QuotaBudget(
+            QuotaUsageRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${exchangerate.quota.monthly-budget:0}") long monthlyBudget,
+            @Value("${exchangerate.quota.pace-slack:0.05}") double paceSlack) {
+        this(repository, meterRegistry, Clock.systemUTC(), monthlyBudget, paceSlack);
+    }
+
+    QuotaBudget(QuotaUsageRepository repository, MeterRegistry meterRegistry, Clock clock, long monthlyBudget, double paceSlack) {
+        this.repository = repository;
+        this.clock = clock;
+        this.monthlyBudget = monthlyBudget;
+        this.paceSlack = paceSlack;
+        this.period = currentPeriod();
+        meterRegistry.gauge("rate.quota.used", used);
+        meterRegistry.gauge("rate.quota.budget", this, QuotaBudget::getMonthlyBudget);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String current = rollOver().toString();
+        try {
+            used.accumulateAndGet(repository.findCalls(current), Math::max);
+            logger.info("Upstream quota: {} call(s) used in {} of a budget of {}", used.get(), current,
+                    monthlyBudget > 0 ? monthlyBudget : "unlimited");
+        } catch (RuntimeException e) {
+            logger.warn("Could not load upstream quota usage, counting from zero: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Counts one upstream call if the budget allows it.
+     *
+     * @return {@code false} if the monthly budget is used up and the call must not be made
+     */
+    public boolean tryConsume() {
+        YearMonth current = rollOver();
+        long calls;
+        do {
+            calls = used.get();
+            if (monthlyBudget > 0 && calls >= monthlyBudget) {
+                return false;
+            }
+        } while (!used.compareAndSet(calls, calls + 1));
+
+        // Callers run on the WebClient event loop, so the JDBC write is moved off it
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                long total = repository.increment(current.toString(), 1);
+                if (current.equals(rollOver())) {
+                    // Other instances spend the same quota; adopt their calls as well
+                    used.accumulateAndGet(total, Math::max);
+                }
+            } catch (DataAccessException e) {
+                logger.warn("Could not persist upstream quota usage: {}", e.getMessage());
+            }
+        });
+        return true;
+    }
+
+    public Mode mode() {
+        rollOver();
+        if (monthlyBudget <= 0) {
+            return Mode.NORMAL;
+        }
+        long calls = used.get();
+        if (calls >= monthlyBudget) {
+            return Mode.EXHAUSTED;
+        }
+        double allowance = monthlyBudget * (elapsedFractionOfMonth() + paceSlack);
+        return calls > allowance ? Mode.CONSERVE : Mode.NORMAL;
+    }
+
+    public long getUsed() {
+        rollOver();
+        return used.get();
+    }
+
+    public long getMonthlyBudget() {
+        return monthlyBudget;
+    }
+
+    private synchronized YearMonth rollOver() {
+        YearMonth current = currentPeriod();
+        if (!current.equals(period)) {
+            period = current;
+            used.set(0);
+        }
+        return period;
+    }
+
+    private YearMonth currentPeriod() {
+        return YearMonth.now(clock.withZone(ZoneOffset.UTC));
+    }
+
+    private double elapsedFractionOfMonth() {
+        YearMonth current = currentPeriod();
+        long start = current.atDay(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        long length = Duration.ofDays(current.lengthOfMonth()).getSeconds();
+        return (double) (clock.instant().getEpochSecond() - start) / length;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.CurrencyIndex;
+import com.example.rateservice.model.RateSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory history of every fetched rate table, kept as one {@link RateSeries} per base and currency.
+ * A pair lookup only decodes the two series involved, so range queries never touch unrelated currencies.
+ * The history is rebuilt from persisted snapshots at startup and then extended with every live fetch.
+ */
+@Component
+public class RateHistoryStore {
+
+    /**
+     * Source of persisted snapshots, replayed oldest first per base.
+     */
+    @FunctionalInterface
+    public interface SnapshotReplay {
+        void forEachSince(long sinceEpochSecond, Consumer<RateSnapshot> action);
+    }
+
+    /**
+     * Updates at which both currencies of a pair were quoted, as parallel arrays ordered by time.
+     */
+    public record PairPoints(long[] times, long[] fromRates, long[] toRates) {
+        public int size() {
+            return times.length;
+        }
+    }
+
+    private final Clock clock;
+    private final int chunkSize;
+    private final long retentionSeconds;
+    private volatile Map<String, RateSeries[]> seriesByBase = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateHistoryStore(
+            @Value("${exchangerate.history.chunk-size:128}") int chunkSize,
+            @Value("${exchangerate.history.retention-days:400}") long retentionDays) {
+        this(Clock.systemUTC(), chunkSize, retentionDays * 86_400);
+    }
+
+    RateHistoryStore(Clock clock, int chunkSize, long retentionSeconds) {
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+        this.retentionSeconds = retentionSeconds;
+    }
+
+    @EventListener
+    public void onRateTableUpdated(RateTableUpdatedEvent event) {
+        record(event.snapshot());
+    }
+
+    public synchronized void record(RateSnapshot snapshot) {
+        append(seriesByBase, snapshot);
+    }
+
+    /**
+     * Replaces the history with the snapshots from the given source, keeping any points recorded
+     * live while the replay was running.
+     */
+    public void rebuild(SnapshotReplay replay) {
+        long since = retentionSeconds > 0 ? clock.instant().getEpochSecond() - retentionSeconds : 0;
+        Map<String, RateSeries[]> rebuilt = new ConcurrentHashMap<>();
+        replay.forEachSince(since, snapshot -> append(rebuilt, snapshot));
+
+        synchronized (this) {
+            seriesByBase.forEach((base, live) -> {
+                RateSeries[] target = rebuilt.computeIfAbsent(base, key -> new RateSeries[CurrencyIndex.size()]);
+                for (int ordinal = 0; ordinal < live.length; ordinal++) {
+                    if (live[ordinal] != null) {
+                        RateSeries series = seriesFor(target, ordinal);
+                        live[ordinal].scan(Long.MIN_VALUE, Long.MAX_VALUE, series::append);
+                    }
+                }
+            });
+            seriesByBase = rebuilt;
+        }
+    }
+
+    /**
+     * Returns the updates between {@code start} and {@code end} (inclusive, unix seconds) of the table
+     * with the given base at which both currencies were quoted.
+     */
+    public PairPoints pairHistory(String baseCode, int fromOrdinal, int toOrdinal, long start, long end) {
+        RateSeries[] series = seriesByBase.get(baseCode);
+        if (series == null || series[fromOrdinal] == null || series[toOrdinal] == null) {
+            return new PairPoints(new long[0], new long[0], new long[0]);
+        }
+
+        long[][] from = series[fromOrdinal].points(start, end);
+        long[][] to = series[toOrdinal].points(start, end);
+        int capacity = Math.min(from[0].length, to[0].length);
+        long[] times = new long[capacity];
+        long[] fromRates = new long[capacity];
+        long[] toRates = new long[capacity];
+        int size = 0;
+        // Both series come from the same tables, so their points line up by update time
+        for (int i = 0, j = 0; i < from[0].length && j < to[0].length; ) {
+            if (from[0][i] < to[0][j]) {
+                i++;
+            } else if (from[0][i] > to[0][j]) {
+                j++;
+            } else {
+                times[size] = from[0][i];
+                fromRates[size] = from[1][i++];
+                toRates[size++] = to[1][j++];
+            }
+        }
+        return new PairPoints(Arrays.copyOf(times, size), Arrays.copyOf(fromRates, size), Arrays.copyOf(toRates, size));
+    }
+
+    private void append(Map<String, RateSeries[]> target, RateSnapshot snapshot) {
+        RateSeries[] series = target.computeIfAbsent(snapshot.getBaseCode(), key -> new RateSeries[CurrencyIndex.size()]);
+        for (int ordinal = 0; ordinal < series.length; ordinal++) {
+            long rate = snapshot.scaledRate(ordinal);
+            if (rate != 0) {
+                seriesFor(series, ordinal).append(snapshot.getTimeLastUpdateUnix(), rate);
+            }
+        }
+    }
+
+    private RateSeries seriesFor(RateSeries[] series, int ordinal) {
+        if (series[ordinal] == null) {
+            series[ordinal] = new RateSeries(chunkSize, retentionSeconds);
+        }
+        return series[ordinal];
+    }
+}
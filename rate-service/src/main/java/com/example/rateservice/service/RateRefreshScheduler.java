@@ -0,0 +1,212 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.CurrencyIndex;
+import com.example.rateservice.model.PairDemand;
+import com.example.rateservice.model.RateSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reloads cached rate tables shortly before they expire so that, in steady state,
+ * no request has to wait for an upstream fetch.
+ *
+ * <p>Each table is due {@code lead-seconds} before it expires in the {@link RateTableCache}, minus a
+ * random jitter so bases sharing an update boundary do not all hit the upstream at once.
+ * Until the upstream actually publishes, a due table is retried every {@code retry-seconds};
+ * the cache's grace period covers the gap between publication and the refreshed table landing.
+ *
+ * <p>Refreshes spend the upstream {@link QuotaBudget}. Due tables are refreshed in order of observed
+ * demand; while the budget is ahead of its monthly pace only bases with at least {@code hot-share} of the
+ * demand are refreshed ahead of time (the others are fetched on their next request instead), and once it
+ * is exhausted background refreshes stop until the next month.
+ *
+ * <p>The bases behind the {@code prefetch-pairs} hottest currency pairs are warmed as well: if one has no
+ * cached table at all it is fetched like a due refresh, so its next request does not wait on upstream.
+ */
+@Component
+@ConditionalOnProperty(name = "exchangerate.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class RateRefreshScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateRefreshScheduler.class);
+
+    private final ExchangeRateService exchangeRateService;
+    private final RateTableCache rateTableCache;
+    private final QuotaBudget quotaBudget;
+    private final DemandTracker demandTracker;
+    private final Executor executor;
+    private final Clock clock;
+    private final long leadSeconds;
+    private final long jitterSeconds;
+    private final long retrySeconds;
+    private final double hotShare;
+    private final int prefetchPairs;
+
+    private final Map<String, RefreshPlan> plans = new ConcurrentHashMap<>();
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    private final Timer refreshLag;
+    private final Counter refreshFailures;
+    private final Counter refreshRejections;
+    private final Counter refreshDeferrals;
+
+    @Autowired
+    public RateRefreshScheduler(
+            ExchangeRateService exchangeRateService,
+            RateTableCache rateTableCache,
+            QuotaBudget quotaBudget,
+            DemandTracker demandTracker,
+            @Qualifier("rateRefreshExecutor") Executor executor,
+            MeterRegistry meterRegistry,
+            @Value("${exchangerate.refresh.lead-seconds:30}") long leadSeconds,
+            @Value("${exchangerate.refresh.jitter-seconds:10}") long jitterSeconds,
+            @Value("${exchangerate.refresh.retry-seconds:15}") long retrySeconds,
+            @Value("${exchangerate.quota.hot-share:0.1}") double hotShare,
+            @Value("${exchangerate.demand.prefetch-pairs:10}") int prefetchPairs) {
+        this(exchangeRateService, rateTableCache, quotaBudget, demandTracker, executor, meterRegistry, Clock.systemUTC(),
+                leadSeconds, jitterSeconds, retrySeconds, hotShare, prefetchPairs);
+    }
+
+    RateRefreshScheduler(ExchangeRateService exchangeRateService, RateTableCache rateTableCache,
+                         QuotaBudget quotaBudget, DemandTracker demandTracker, Executor executor,
+                         MeterRegistry meterRegistry, Clock clock,
+                         long leadSeconds, long jitterSeconds, long retrySeconds, double hotShare, int prefetchPairs) {
+        this.exchangeRateService = exchangeRateService;
+        this.rateTableCache = rateTableCache;
+        this.quotaBudget = quotaBudget;
+        this.demandTracker = demandTracker;
+        this.executor = executor;
+        this.clock = clock;
+        this.leadSeconds = leadSeconds;
+        this.jitterSeconds = jitterSeconds;
+        this.retrySeconds = retrySeconds;
+        this.hotShare = hotShare;
+        this.prefetchPairs = prefetchPairs;
+
+        this.refreshLag = Timer.builder("rate.refresh.lag")
+                .description("Time from a table's scheduled refresh point until the refreshed table was cached")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("rate.refresh.failures")
+                .description("Background rate table refreshes that failed")
+                .register(meterRegistry);
+        this.refreshRejections = Counter.builder("rate.refresh.rejections")
+                .description("Background refreshes dropped because the refresh pool was saturated")
+                .register(meterRegistry);
+        this.refreshDeferrals = Counter.builder("rate.refresh.deferrals")
+                .description("Due background refreshes skipped to stay within the upstream quota")
+                .register(meterRegistry);
+        meterRegistry.gauge("rate.refresh.in_progress", inProgress, Set::size);
+    }
+
+    @Scheduled(fixedDelayString = "${exchangerate.refresh.check-interval-ms:5000}",
+            initialDelayString = "${exchangerate.refresh.check-interval-ms:5000}")
+    public void refreshDueTables() {
+        long now = clock.instant().getEpochSecond();
+        Map<String, RateSnapshot> tables = rateTableCache.entries();
+        Set<String> missing = hotUncachedBases(tables);
+        plans.keySet().removeIf(baseCode -> !tables.containsKey(baseCode) && !missing.contains(baseCode));
+
+        List<String> due = new ArrayList<>();
+        tables.forEach((baseCode, table) -> {
+            long expiresAt = rateTableCache.expiresAt(table);
+            RefreshPlan plan = plans.compute(baseCode, (key, current) ->
+                    current != null && current.expiresAt() == expiresAt ? current : newPlan(expiresAt));
+
+            if (now >= plan.dueAt() && now - plan.lastAttempt() >= retrySeconds && !inProgress.contains(baseCode)) {
+                due.add(baseCode);
+            }
+        });
+        for (String baseCode : missing) {
+            RefreshPlan plan = plans.computeIfAbsent(baseCode, key -> new RefreshPlan(0, now, Long.MIN_VALUE / 2));
+            if (now - plan.lastAttempt() >= retrySeconds && !inProgress.contains(baseCode)) {
+                due.add(baseCode);
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        QuotaBudget.Mode mode = quotaBudget.mode();
+        due.sort(Comparator.<String>comparingDouble(demandTracker::share).reversed());
+        for (String baseCode : due) {
+            RefreshPlan plan = plans.get(baseCode);
+            plans.put(baseCode, plan.attemptedAt(now));
+            if (mode == QuotaBudget.Mode.EXHAUSTED
+                    || (mode == QuotaBudget.Mode.CONSERVE && demandTracker.share(baseCode) < hotShare)) {
+                refreshDeferrals.increment();
+                logger.debug("Deferring refresh of {} rate table, upstream quota is {}", baseCode, mode);
+                continue;
+            }
+            if (inProgress.add(baseCode)) {
+                submit(baseCode, plan.dueAt());
+            }
+        }
+    }
+
+    private Set<String> hotUncachedBases(Map<String, RateSnapshot> tables) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (PairDemand pair : demandTracker.topPairs(prefetchPairs)) {
+            String baseCode = exchangeRateService.baseFor(pair.getFrom());
+            if (baseCode != null && CurrencyIndex.ordinalOf(baseCode) >= 0 && !tables.containsKey(baseCode)) {
+                missing.add(baseCode);
+            }
+        }
+        return missing;
+    }
+
+    private RefreshPlan newPlan(long expiresAt) {
+        long jitter = jitterSeconds > 0 ? ThreadLocalRandom.current().nextLong(jitterSeconds + 1) : 0;
+        return new RefreshPlan(expiresAt, expiresAt - leadSeconds - jitter, Long.MIN_VALUE / 2);
+    }
+
+    private void submit(String baseCode, long dueAt) {
+        try {
+            executor.execute(() -> refresh(baseCode, dueAt));
+        } catch (RejectedExecutionException e) {
+            inProgress.remove(baseCode);
+            refreshRejections.increment();
+            logger.warn("Refresh pool saturated, skipping refresh of {} rate table", baseCode);
+        }
+    }
+
+    private void refresh(String baseCode, long dueAt) {
+        try {
+            RateSnapshot refreshed = exchangeRateService.refreshRateTable(baseCode);
+            refreshLag.record(Duration.ofMillis(Math.max(0, clock.millis() - dueAt * 1000)));
+            logger.debug("Refreshed {} rate table, next upstream update at {}", baseCode, refreshed.getTimeNextUpdateUnix());
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            logger.warn("Background refresh of {} rate table failed: {}", baseCode, e.getMessage());
+        } finally {
+            inProgress.remove(baseCode);
+        }
+    }
+
+    private record RefreshPlan(long expiresAt, long dueAt, long lastAttempt) {
+        RefreshPlan attemptedAt(long epochSecond) {
+            return new RefreshPlan(expiresAt, dueAt, epochSecond);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.rateservice.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only time series of fixed-point rates for one currency against one base.
+ *
+ * <p>Points are grouped into chunks of a bounded number of points. Each chunk stores its first point
+ * verbatim and every following point as varint-encoded deltas: time as the gap to the previous update,
+ * rate as the zigzag-encoded change. Rates usually move by a few pips between updates, so most points
+ * take three to five bytes. Chunks remember their time span, so a range query binary-searches to the
+ * first relevant chunk and decodes only the chunks overlapping the range.
+ */
+final class RateSeries {
+
+    interface PointConsumer {
+        void accept(long time, long scaledRate);
+    }
+
+    private final int chunkSize;
+    private final long retentionSeconds;
+    private final List<Chunk> chunks = new ArrayList<>();
+    private long lastTime = Long.MIN_VALUE;
+    private long lastValue;
+
+    RateSeries(int chunkSize, long retentionSeconds) {
+        this.chunkSize = Math.max(2, chunkSize);
+        this.retentionSeconds = retentionSeconds;
+    }
+
+    /**
+     * Appends a point, ignoring it unless it is newer than the last one.
+     */
+    synchronized boolean append(long time, long scaledRate) {
+        if (time <= lastTime) {
+            return false;
+        }
+        Chunk head = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (head == null || head.count >= chunkSize) {
+            if (head != null) {
+                head.seal();
+            }
+            chunks.add(new Chunk(time, scaledRate));
+            dropExpiredChunks(time);
+        } else {
+            head.append(time - lastTime, scaledRate - lastValue, time);
+        }
+        lastTime = time;
+        lastValue = scaledRate;
+        return true;
+    }
+
+    /**
+     * Passes every point with {@code start <= time <= end} to the consumer, oldest first.
+     */
+    synchronized void scan(long start, long end, PointConsumer consumer) {
+        for (int i = firstChunkEndingAtOrAfter(start); i < chunks.size(); i++) {
+            Chunk chunk = chunks.get(i);
+            if (chunk.firstTime > end) {
+                return;
+            }
+            chunk.scan(start, end, consumer);
+        }
+    }
+
+    /**
+     * Returns the points with {@code start <= time <= end} as two parallel arrays: times and rates.
+     */
+    synchronized long[][] points(long start, long end) {
+        int capacity = 0;
+        for (Chunk chunk : chunks) {
+            capacity += chunk.count;
+        }
+        long[] times = new long[capacity];
+        long[] rates = new long[capacity];
+        int[] size = new int[1];
+        scan(start, end, (time, rate) -> {
+            times[size[0]] = time;
+            rates[size[0]++] = rate;
+        });
+        return new long[][] {Arrays.copyOf(times, size[0]), Arrays.copyOf(rates, size[0])};
+    }
+
+    private int firstChunkEndingAtOrAfter(long time) {
+        int low = 0;
+        int high = chunks.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (chunks.get(mid).lastTime < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void dropExpiredChunks(long now) {
+        if (retentionSeconds <= 0) {
+            return;
+        }
+        long cutoff = now - retentionSeconds;
+        int expired = 0;
+        while (expired < chunks.size() - 1 && chunks.get(expired).lastTime < cutoff) {
+            expired++;
+        }
+        if (expired > 0) {
+            chunks.subList(0, expired).clear();
+        }
+    }
+
+    private static final class Chunk {
+        private final long firstTime;
+        private final long firstValue;
+        private long lastTime;
+        private int count = 1;
+        private byte[] data = new byte[32];
+        private int length;
+
+        Chunk(long time, long value) {
+            this.firstTime = time;
+            this.firstValue = value;
+            this.lastTime = time;
+        }
+
+        void append(long timeDelta, long valueDelta, long time) {
+            writeVarLong(timeDelta);
+            writeVarLong((valueDelta << 1) ^ (valueDelta >> 63));
+            lastTime = time;
+            count++;
+        }
+
+        void seal() {
+            data = Arrays.copyOf(data, length);
+        }
+
+        void scan(long start, long end, PointConsumer consumer) {
+            long time = firstTime;
+            long value = firstValue;
+            int position = 0;
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    long timeDelta = 0;
+                    for (int shift = 0; ; shift += 7) {
+                        byte b = data[position++];
+                        timeDelta |= (long) (b & 0x7F) << shift;
+                        if (b >= 0) {
+                            break;
+                        }
+                    }
+                    long zigzag = 0;
+                    for (int shift = 0; ; shift += 7) {
+                        byte b = data[position++];
+                        zigzag |= (long) (b & 0x7F) << shift;
+                        if (b >= 0) {
+                            break;
+                        }
+                    }
+                    time += timeDelta;
+                    value += (zigzag >>> 1) ^ -(zigzag & 1);
+                }
+                if (time > end) {
+                    return;
+                }
+                if (time >= start) {
+                    consumer.accept(time, value);
+                }
+            }
+        }
+
+        private void writeVarLong(long value) {
+            if (data.length - length < 10) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            while ((value & ~0x7FL) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.RateSnapshot;
+import com.example.rateservice.repository.RateSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.util.List;
+
+/**
+ * Persists every fetched rate table and restores the still-valid ones into the cache at startup,
+ * along with the rate history retained by {@link RateHistoryStore}.
+ *
+ * <p>Restoring happens in an {@link ApplicationRunner}, which Spring Boot completes before it marks
+ * the application ready, so a restarted instance takes traffic with a warm cache instead of
+ * sending its first wave of requests upstream.
+ */
+@Component
+@ConditionalOnProperty(name = "exchangerate.snapshots.persist-enabled", havingValue = "true", matchIfMissing = true)
+public class RateSnapshotStore implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateSnapshotStore.class);
+
+    private final RateSnapshotRepository repository;
+    private final RateTableCache rateTableCache;
+    private final RateHistoryStore rateHistoryStore;
+    private final Clock clock;
+
+    @Autowired
+    public RateSnapshotStore(RateSnapshotRepository repository, RateTableCache rateTableCache, RateHistoryStore rateHistoryStore) {
+        this(repository, rateTableCache, rateHistoryStore, Clock.systemUTC());
+    }
+
+    RateSnapshotStore(RateSnapshotRepository repository, RateTableCache rateTableCache, RateHistoryStore rateHistoryStore, Clock clock) {
+        this.repository = repository;
+        this.rateTableCache = rateTableCache;
+        this.rateHistoryStore = rateHistoryStore;
+        this.clock = clock;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            List<RateSnapshot> snapshots = repository.findLatestValid(clock.instant().getEpochSecond());
+            snapshots.forEach(snapshot -> rateTableCache.put(snapshot.getBaseCode(), snapshot));
+            logger.info("Restored {} persisted rate table(s) into the cache", snapshots.size());
+        } catch (RuntimeException e) {
+            logger.warn("Could not restore persisted rate tables, starting with a cold cache: {}", e.getMessage());
+        }
+
+        try {
+            rateHistoryStore.rebuild(repository::forEachSince);
+            logger.info("Rebuilt rate history from persisted rate tables");
+        } catch (RuntimeException e) {
+            logger.warn("Could not rebuild rate history, keeping only live updates: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onRateTableUpdated(RateTableUpdatedEvent event) {
+        // Fetches complete on the WebClient event loop, so the JDBC write is moved off it
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                repository.save(event.snapshot());
+            } catch (DataAccessException e) {
+                logger.warn("Could not persist {} rate table: {}", event.snapshot().getBaseCode(), e.getMessage());
+            }
+        });
+    }
+}
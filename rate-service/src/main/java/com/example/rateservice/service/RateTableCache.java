@@ -0,0 +1,164 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.RateSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory cache of complete upstream rate tables keyed by base currency code.
+ * An entry stays valid until the upstream's advertised {@code time_next_update_unix},
+ * so every pair sharing a base is answered locally until new data is published.
+ * An optional grace period keeps serving a table for a short while past that instant,
+ * giving the refresh-ahead scheduler time to swap in the newly published table.
+ * Beyond that, expired tables are kept up to a maximum staleness so they can still be served,
+ * flagged as stale, while the upstream API is failing.
+ *
+ * <p>Tables whose rates have barely moved over their last few updates may be kept past the next
+ * upstream update: a table then expires once its observed drift would have moved rates by
+ * {@code drift-tolerance}, but never more than {@code max-seconds} after its last update and never
+ * before its next one. Volatile tables keep following the upstream schedule. This is off unless
+ * {@code max-seconds} is set.
+ */
+@Component
+public class RateTableCache {
+
+    private final Map<String, CachedTable> tables = new ConcurrentHashMap<>();
+    private final Map<String, RateVolatility> volatility = new ConcurrentHashMap<>();
+    private final Clock clock;
+    private final long graceSeconds;
+    private final long maxStaleSeconds;
+    private final long maxTtlSeconds;
+    private final double driftTolerance;
+    private final int volatilityWindow;
+    private final double volatilityQuantile;
+
+    @Autowired
+    public RateTableCache(
+            @Value("${exchangerate.refresh.grace-seconds:0}") long graceSeconds,
+            @Value("${exchangerate.stale.max-seconds:0}") long maxStaleSeconds,
+            @Value("${exchangerate.ttl.max-seconds:0}") long maxTtlSeconds,
+            @Value("${exchangerate.ttl.drift-tolerance:0.002}") double driftTolerance,
+            @Value("${exchangerate.ttl.window-size:5}") int volatilityWindow,
+            @Value("${exchangerate.ttl.quantile:1.0}") double volatilityQuantile) {
+        this(Clock.systemUTC(), graceSeconds, maxStaleSeconds, maxTtlSeconds, driftTolerance, volatilityWindow, volatilityQuantile);
+    }
+
+    RateTableCache(Clock clock, long graceSeconds, long maxStaleSeconds) {
+        this(clock, graceSeconds, maxStaleSeconds, 0, 0, 1, 1.0);
+    }
+
+    RateTableCache(Clock clock, long graceSeconds, long maxStaleSeconds,
+                   long maxTtlSeconds, double driftTolerance, int volatilityWindow, double volatilityQuantile) {
+        this.clock = clock;
+        this.graceSeconds = graceSeconds;
+        this.maxStaleSeconds = maxStaleSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+        this.driftTolerance = driftTolerance;
+        this.volatilityWindow = volatilityWindow;
+        this.volatilityQuantile = volatilityQuantile;
+    }
+
+    /**
+     * Returns the cached table for the given base, or {@code null} if it is missing or expired.
+     */
+    public RateSnapshot get(String baseCode) {
+        CachedTable entry = tables.get(baseCode);
+        if (entry == null || isExpired(entry.expiresAt())) {
+            return null;
+        }
+        return entry.table();
+    }
+
+    /**
+     * Returns the last known table for the given base even if it has expired, as long as it is
+     * within the maximum staleness, or {@code null} otherwise.
+     */
+    public RateSnapshot getStale(String baseCode) {
+        CachedTable entry = tables.get(baseCode);
+        if (entry == null || isBeyondMaxStaleness(entry.expiresAt())) {
+            return null;
+        }
+        return entry.table();
+    }
+
+    /**
+     * Tells whether a table is past its expiry (plus grace), i.e. would only be served as stale.
+     */
+    public boolean isStale(RateSnapshot table) {
+        return isExpired(expiresAt(table));
+    }
+
+    /**
+     * Returns the epoch second the table expires at: its next upstream update, or later for a cached
+     * table whose rates have been stable.
+     */
+    public long expiresAt(RateSnapshot table) {
+        CachedTable entry = tables.get(table.getBaseCode());
+        return entry != null && entry.table() == table ? entry.expiresAt() : table.getTimeNextUpdateUnix();
+    }
+
+    /**
+     * Stores a freshly fetched table. Tables already beyond the maximum staleness are not cached.
+     */
+    public void put(String baseCode, RateSnapshot table) {
+        CachedTable previous = tables.get(baseCode);
+        if (maxTtlSeconds > 0 && previous != null
+                && table.getTimeLastUpdateUnix() > previous.table().getTimeLastUpdateUnix()) {
+            volatility.computeIfAbsent(baseCode, key -> new RateVolatility(volatilityWindow, volatilityQuantile))
+                    .observe(previous.table(), table);
+        }
+
+        long expiresAt = adaptiveExpiry(baseCode, table);
+        if (isExpired(expiresAt) && isBeyondMaxStaleness(expiresAt)) {
+            tables.remove(baseCode);
+            return;
+        }
+        tables.put(baseCode, new CachedTable(table, expiresAt));
+    }
+
+    /**
+     * Returns every table currently held, including ones past their expiry.
+     */
+    public Map<String, RateSnapshot> entries() {
+        Map<String, RateSnapshot> snapshot = new HashMap<>();
+        tables.forEach((baseCode, entry) -> snapshot.put(baseCode, entry.table()));
+        return Map.copyOf(snapshot);
+    }
+
+    public void evict(String baseCode) {
+        tables.remove(baseCode);
+    }
+
+    public void clear() {
+        tables.clear();
+        volatility.clear();
+    }
+
+    private long adaptiveExpiry(String baseCode, RateSnapshot table) {
+        long nextUpdate = table.getTimeNextUpdateUnix();
+        RateVolatility observed = volatility.get(baseCode);
+        double drift = observed == null ? -1 : observed.driftPerSecond();
+        if (maxTtlSeconds <= 0 || drift < 0) {
+            return nextUpdate;
+        }
+        long ttl = drift == 0 ? maxTtlSeconds : (long) Math.min(maxTtlSeconds, driftTolerance / drift);
+        return Math.max(nextUpdate, table.getTimeLastUpdateUnix() + ttl);
+    }
+
+    private boolean isExpired(long expiresAt) {
+        return clock.instant().getEpochSecond() >= expiresAt + graceSeconds;
+    }
+
+    private boolean isBeyondMaxStaleness(long expiresAt) {
+        return clock.instant().getEpochSecond() >= expiresAt + Math.max(graceSeconds, maxStaleSeconds);
+    }
+
+    private record CachedTable(RateSnapshot table, long expiresAt) {
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.CurrencyIndex;
+import com.example.rateservice.model.RateSnapshot;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+
+/**
+ * Token-level decoder for the upstream {@code /latest/{base}} payload.
+ *
+ * <p>Chunks of the response body are fed to Jackson's non-blocking parser as they arrive, and rates
+ * are decoded straight from the token characters into the fixed-point layout of {@link RateSnapshot}.
+ * Only {@code result}, {@code error-type}, {@code base_code}, the two unix timestamps and the rate
+ * object are read; documentation links, terms of use and the UTC date strings are skipped without
+ * ever being materialised as Strings.
+ */
+public final class RateTableParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private RateTableParser() {
+    }
+
+    public static Mono<RateSnapshot> parse(Flux<DataBuffer> body) {
+        return body
+                .reduceWith(RateTableDecoder::new, (decoder, buffer) -> {
+                    try {
+                        decoder.feed(buffer);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                    return decoder;
+                })
+                .map(RateTableDecoder::finish);
+    }
+
+    public static RateSnapshot parse(byte[] body) {
+        RateTableDecoder decoder = new RateTableDecoder();
+        decoder.feed(ByteBuffer.wrap(body));
+        return decoder.finish();
+    }
+
+    static final class RateTableDecoder {
+
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private final long[] scaledRates = new long[CurrencyIndex.size()];
+
+        private int depth;
+        private int skipDepth;
+        private String field;
+        private boolean inRates;
+        private boolean sawRates;
+        private int currencyOrdinal = -1;
+
+        private String result;
+        private String errorType;
+        private String baseCode;
+        private long timeLastUpdateUnix;
+        private long timeNextUpdateUnix;
+
+        RateTableDecoder() {
+            try {
+                this.parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        void feed(DataBuffer buffer) {
+            try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                while (chunks.hasNext()) {
+                    feed(chunks.next());
+                }
+            }
+        }
+
+        void feed(ByteBuffer chunk) {
+            try {
+                feeder.feedInput(chunk);
+                drain();
+            } catch (IOException e) {
+                throw new RuntimeException("Malformed exchange rate response", e);
+            }
+        }
+
+        RateSnapshot finish() {
+            try {
+                feeder.endOfInput();
+                drain();
+                parser.close();
+            } catch (IOException e) {
+                throw new RuntimeException("Malformed exchange rate response", e);
+            }
+
+            if ("error".equals(result)) {
+                throw new RuntimeException("Exchange rate API error: " + errorType);
+            }
+            if (baseCode == null || !sawRates) {
+                throw new RuntimeException("Failed to retrieve exchange rates");
+            }
+
+            RateSnapshot.Builder builder = RateSnapshot.builder(baseCode, timeLastUpdateUnix, timeNextUpdateUnix);
+            for (int ordinal = 0; ordinal < scaledRates.length; ordinal++) {
+                if (scaledRates[ordinal] != 0) {
+                    builder.scaledRate(ordinal, scaledRates[ordinal]);
+                }
+            }
+            return builder.build();
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                handle(token);
+            }
+        }
+
+        private void handle(JsonToken token) throws IOException {
+            if (skipDepth > 0) {
+                if (token.isStructStart()) {
+                    skipDepth++;
+                } else if (token.isStructEnd()) {
+                    skipDepth--;
+                }
+                return;
+            }
+
+            switch (token) {
+                case START_OBJECT -> {
+                    if (depth == 1 && isRatesField()) {
+                        inRates = true;
+                        sawRates = true;
+                    } else if (depth >= 1) {
+                        skipDepth = 1;
+                        return;
+                    }
+                    depth++;
+                }
+                case START_ARRAY -> skipDepth = 1;
+                case END_OBJECT -> {
+                    depth--;
+                    inRates = false;
+                }
+                case FIELD_NAME -> {
+                    if (inRates) {
+                        currencyOrdinal = CurrencyIndex.ordinalOf(parser.currentName());
+                    } else {
+                        field = parser.currentName();
+                    }
+                }
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> {
+                    if (inRates) {
+                        if (currencyOrdinal >= 0) {
+                            scaledRates[currencyOrdinal] = scaledValue();
+                        }
+                    } else if ("time_last_update_unix".equals(field)) {
+                        timeLastUpdateUnix = parser.getLongValue();
+                    } else if ("time_next_update_unix".equals(field)) {
+                        timeNextUpdateUnix = parser.getLongValue();
+                    }
+                }
+                case VALUE_STRING -> {
+                    if (inRates) {
+                        return;
+                    }
+                    if ("result".equals(field)) {
+                        result = parser.getText();
+                    } else if ("error-type".equals(field)) {
+                        errorType = parser.getText();
+                    } else if ("base_code".equals(field)) {
+                        baseCode = parser.getText();
+                    }
+                }
+                default -> {
+                    // Booleans and nulls carry nothing we need
+                }
+            }
+        }
+
+        private boolean isRatesField() {
+            return "conversion_rates".equals(field) || "rates".equals(field);
+        }
+
+        /**
+         * Converts the current number token to a fixed-point rate without building a BigDecimal
+         * for the common plain-decimal case. Non-positive rates are stored as 0 (absent).
+         */
+        private long scaledValue() throws IOException {
+            char[] chars = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            int length = parser.getTextLength();
+
+            long value = 0;
+            int fractionDigits = -1;
+            for (int i = offset; i < offset + length; i++) {
+                char c = chars[i];
+                if (c == '.') {
+                    fractionDigits = 0;
+                } else if (c >= '0' && c <= '9') {
+                    if (fractionDigits == RateSnapshot.SCALE) {
+                        // Digits beyond the snapshot scale only decide rounding
+                        return c >= '5' ? value + 1 : value;
+                    }
+                    if (value > (Long.MAX_VALUE - 9) / 10) {
+                        return 0;
+                    }
+                    value = value * 10 + (c - '0');
+                    if (fractionDigits >= 0) {
+                        fractionDigits++;
+                    }
+                } else if (c == '-') {
+                    return 0;
+                } else {
+                    // Exponent notation is rare enough to take the slow path
+                    return decimalFallback();
+                }
+            }
+            int missing = RateSnapshot.SCALE - Math.max(fractionDigits, 0);
+            for (int i = 0; i < missing; i++) {
+                if (value > Long.MAX_VALUE / 10) {
+                    return 0;
+                }
+                value *= 10;
+            }
+            return value;
+        }
+
+        private long decimalFallback() throws IOException {
+            BigDecimal rate = parser.getDecimalValue();
+            if (rate.signum() <= 0) {
+                return 0;
+            }
+            try {
+                return rate.setScale(RateSnapshot.SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            } catch (ArithmeticException e) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.RateSnapshot;
+
+/**
+ * Published after a rate table has been fetched from upstream and placed in the cache.
+ */
+public record RateTableUpdatedEvent(RateSnapshot snapshot) {
+}
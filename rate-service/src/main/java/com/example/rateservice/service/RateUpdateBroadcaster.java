@@ -0,0 +1,75 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.RateDelta;
+import com.example.rateservice.model.RateSnapshot;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans rate table updates out to stream subscribers as compact deltas against the table
+ * they were last sent. A new subscriber first receives every cached table in full, so it
+ * can build a complete local copy and then keep it current from the deltas alone.
+ * Subscribers that cannot keep up miss deltas rather than slowing down the others. Every delta
+ * carries its stream sequence and that of the update it applies to, so a subscriber can tell
+ * it missed one and resubscribe for a full copy instead of keeping outdated rates. The next update
+ * sent is the instant the cache stops serving the table, which is later than the upstream's for
+ * stable tables.
+ */
+@Component
+public class RateUpdateBroadcaster {
+
+    private final RateTableCache rateTableCache;
+    private final Sinks.Many<RateDelta> updates = Sinks.many().multicast().directBestEffort();
+    private final Map<String, Published> lastPublished = new ConcurrentHashMap<>();
+    private long sequence;
+
+    public RateUpdateBroadcaster(RateTableCache rateTableCache) {
+        this.rateTableCache = rateTableCache;
+    }
+
+    @EventListener
+    public synchronized void onRateTableUpdated(RateTableUpdatedEvent event) {
+        RateSnapshot snapshot = event.snapshot();
+        Published current = new Published(snapshot, ++sequence);
+        Published previous = lastPublished.put(snapshot.getBaseCode(), current);
+        RateDelta delta = RateDelta.between(previous == null ? null : previous.snapshot(), snapshot);
+        delta.setNextUpdate(rateTableCache.expiresAt(snapshot));
+        delta.setSequence(current.sequence());
+        delta.setPreviousSequence(previous == null ? 0 : previous.sequence());
+        // Emitted even without rate changes, since subscribers track the table's next update time as well
+        updates.tryEmitNext(delta);
+    }
+
+    /**
+     * Returns the live delta stream, preceded by a full copy of every cached table.
+     */
+    public Flux<RateDelta> stream() {
+        // Subscribing to the live updates before reading the cache means an update racing the
+        // initial copy is delivered twice at worst, never lost
+        Flux<RateDelta> initial = Flux.defer(() -> Flux.fromIterable(rateTableCache.entries().values())
+                .map(this::fullCopy));
+        return Flux.merge(updates.asFlux(), initial);
+    }
+
+    /**
+     * Full copy of the last table published for the base, so the deltas that follow apply to it. Tables
+     * only restored into the cache have not been published and go out with sequence 0; the next update
+     * of such a base is sent in full as well.
+     */
+    private RateDelta fullCopy(RateSnapshot cached) {
+        Published published = lastPublished.get(cached.getBaseCode());
+        RateSnapshot table = published == null ? cached : published.snapshot();
+        RateDelta delta = RateDelta.between(null, table);
+        delta.setNextUpdate(rateTableCache.expiresAt(table));
+        delta.setSequence(published == null ? 0 : published.sequence());
+        return delta;
+    }
+
+    private record Published(RateSnapshot snapshot, long sequence) {
+    }
+}
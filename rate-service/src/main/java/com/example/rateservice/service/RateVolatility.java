@@ -0,0 +1,69 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.CurrencyIndex;
+import com.example.rateservice.model.RateSnapshot;
+
+import java.util.Arrays;
+
+/**
+ * How fast the rates of one base table have been moving, measured over its last few upstream updates.
+ * Each update contributes the {@code quantile}-th largest relative move across the table's currencies,
+ * divided by the seconds between the two updates. A quantile of 1 takes the largest move, so a single
+ * volatile currency sets the pace of its whole table; lower quantiles ignore the most erratic currencies.
+ * The estimate is the largest such drift in the window.
+ */
+final class RateVolatility {
+
+    private final double[] drifts;
+    private final double quantile;
+    private int count;
+    private int next;
+
+    RateVolatility(int windowSize, double quantile) {
+        this.drifts = new double[Math.max(1, windowSize)];
+        this.quantile = Math.max(0, Math.min(1, quantile));
+    }
+
+    synchronized void observe(RateSnapshot previous, RateSnapshot current) {
+        long elapsed = current.getTimeLastUpdateUnix() - previous.getTimeLastUpdateUnix();
+        if (elapsed <= 0) {
+            return;
+        }
+        // The base always quotes itself at one, so it would only dilute the quantile
+        int baseOrdinal = CurrencyIndex.ordinalOf(current.getBaseCode());
+        double[] moves = new double[CurrencyIndex.size()];
+        int quoted = 0;
+        for (int ordinal = 0; ordinal < moves.length; ordinal++) {
+            if (ordinal == baseOrdinal) {
+                continue;
+            }
+            long before = previous.scaledRate(ordinal);
+            long after = current.scaledRate(ordinal);
+            if (before > 0 && after > 0) {
+                moves[quoted++] = Math.abs((double) (after - before) / before);
+            }
+        }
+        if (quoted == 0) {
+            return;
+        }
+        Arrays.sort(moves, 0, quoted);
+        int index = Math.max(0, (int) Math.ceil(quantile * quoted) - 1);
+        drifts[next] = moves[index] / elapsed;
+        next = (next + 1) % drifts.length;
+        count = Math.min(count + 1, drifts.length);
+    }
+
+    /**
+     * Returns the estimated relative move per second, or a negative value before any update was observed.
+     */
+    synchronized double driftPerSecond() {
+        if (count == 0) {
+            return -1;
+        }
+        double max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, drifts[i]);
+        }
+        return max;
+    }
+}
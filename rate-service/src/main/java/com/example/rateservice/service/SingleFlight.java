@@ -0,0 +1,55 @@
+package com.example.rateservice.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key into a single in-flight call.
+ * The first caller runs the loader; every caller arriving while it is still running
+ * receives the same result (or failure) instead of starting its own load.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            // Hand out a copy so one caller cancelling cannot fail the shared load for everyone else
+            return existing.copy();
+        }
+
+        CompletableFuture<V> load;
+        try {
+            load = loader.get();
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+
+        load.whenComplete((value, error) -> {
+            // Remove before completing so callers woken by this result never see a finished load as in flight
+            inFlight.remove(key, promise);
+            if (error != null) {
+                promise.completeExceptionally(unwrap(error));
+            } else {
+                promise.complete(value);
+            }
+        });
+        return promise.copy();
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.CurrencyIndex;
+import com.example.rateservice.model.SupportedCodesResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Registry of the currency codes the upstream currently supports, used to reject unknown codes before
+ * any rate table is looked up or fetched.
+ *
+ * <p>The codes are loaded from the upstream's {@code /codes} endpoint at startup and refreshed rarely after
+ * that; each load spends one call of the {@link QuotaBudget}. Until a load succeeds every code in
+ * {@link CurrencyIndex} is accepted. Membership is a bitmap over {@link CurrencyIndex} ordinals, so a lookup
+ * neither hashes nor allocates.
+ */
+@Component
+public class SupportedCurrencies implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupportedCurrencies.class);
+
+    private final WebClient webClient;
+    private final QuotaBudget quotaBudget;
+    private final String codesUriTemplate;
+    private final String apiKey;
+    private final Duration timeout;
+
+    private volatile long[] supported = allCodes();
+
+    public SupportedCurrencies(
+            WebClient webClient,
+            QuotaBudget quotaBudget,
+            @Value("${exchangerate.api.base-url:https://v6.exchangerate-api.com/v6}") String apiBaseUrl,
+            @Value("${exchangerate.api.key:YOUR_API_KEY}") String apiKey,
+            @Value("${exchangerate.api.timeout-ms:5000}") long timeoutMillis) {
+        this.webClient = webClient;
+        this.quotaBudget = quotaBudget;
+        // The key is a template variable so it stays out of the uri tag of client request metrics
+        this.codesUriTemplate = apiBaseUrl + "/{key}/codes";
+        this.apiKey = apiKey;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+    }
+
+    /**
+     * Tells whether an upper-case three-letter code is currently supported.
+     */
+    public boolean isSupported(String code) {
+        int ordinal = CurrencyIndex.ordinalOf(code);
+        return ordinal >= 0 && (supported[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${exchangerate.codes.refresh-interval-ms:86400000}",
+            initialDelayString = "${exchangerate.codes.refresh-interval-ms:86400000}")
+    public void refresh() {
+        if (!quotaBudget.tryConsume()) {
+            logger.info("Upstream quota used up, keeping the current supported currency codes");
+            return;
+        }
+        try {
+            SupportedCodesResponse response = webClient.get()
+                    .uri(codesUriTemplate, apiKey)
+                    .retrieve()
+                    .bodyToMono(SupportedCodesResponse.class)
+                    .block(timeout);
+            if (response == null || !"success".equals(response.getResult()) || response.getSupported_codes() == null) {
+                logger.warn("Upstream did not return supported currency codes, keeping the current ones");
+                return;
+            }
+            update(response.getSupported_codes());
+        } catch (RuntimeException e) {
+            logger.warn("Could not load supported currency codes, keeping the current ones: {}", e.getMessage());
+        }
+    }
+
+    void update(List<List<String>> codes) {
+        long[] bits = new long[words()];
+        int count = 0;
+        for (List<String> entry : codes) {
+            int ordinal = entry.isEmpty() ? -1 : CurrencyIndex.ordinalOf(entry.get(0));
+            if (ordinal >= 0) {
+                bits[ordinal >>> 6] |= 1L << ordinal;
+                count++;
+            }
+        }
+        if (count == 0) {
+            logger.warn("None of the upstream currency codes are known, keeping the current ones");
+            return;
+        }
+        supported = bits;
+        logger.info("Loaded {} supported currency codes", count);
+    }
+
+    private static long[] allCodes() {
+        long[] bits = new long[words()];
+        for (int ordinal = 0; ordinal < CurrencyIndex.size(); ordinal++) {
+            bits[ordinal >>> 6] |= 1L << ordinal;
+        }
+        return bits;
+    }
+
+    private static int words() {
+        return (CurrencyIndex.size() + 63) >>> 6;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.rateservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebClientConfigTest {
+
+    @Test
+    void uriTag_shouldMapUpstreamPathsToTemplates() {
+        assertEquals("/latest/{base}", WebClientConfig.uriTag("/v6/secret-key/latest/USD"));
+        assertEquals("/latest/{base}", WebClientConfig.uriTag("https://v6.exchangerate-api.com/v6/secret-key/latest/eur?x=1"));
+        assertEquals("/codes", WebClientConfig.uriTag("/v6/secret-key/codes"));
+        assertEquals("/other", WebClientConfig.uriTag("/v6/secret-key/pair/USD/EUR"));
+    }
+}
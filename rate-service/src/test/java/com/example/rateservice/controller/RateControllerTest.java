@@ -1,7 +1,12 @@
 package com.example.rateservice.controller;
 
+import com.example.rateservice.model.RateHistoryResponse;
+import com.example.rateservice.model.RatePoint;
 import com.example.rateservice.model.RateResponse;
+import com.example.rateservice.model.RatesResponse;
 import com.example.rateservice.service.ExchangeRateService;
+import com.example.rateservice.service.SupportedCurrencies;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -11,20 +16,32 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
 
 @WebMvcTest(RateController.class)
-@ContextConfiguration(classes = {RateController.class, RateControllerTest.TestSecurityConfig.class})
+@ContextConfiguration(classes = {RateController.class, GlobalExceptionHandler.class, RateControllerTest.TestSecurityConfig.class})
 class RateControllerTest {
     @Autowired
     MockMvc mockMvc;
     @MockBean
     ExchangeRateService service;
+    @MockBean
+    SupportedCurrencies supportedCurrencies;
 
     @Configuration
     static class TestSecurityConfig {
@@ -35,17 +52,113 @@ class RateControllerTest {
         }
     }
 
+    @BeforeEach
+    void supportEveryCode() {
+        when(supportedCurrencies.isSupported(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void getExchangeRate_shouldRejectUnsupportedCodeWithoutCallingService() throws Exception {
+        when(supportedCurrencies.isSupported("XYZ")).thenReturn(false);
+        MvcResult result = mockMvc.perform(get("/rate")
+                .param("from", "USD")
+                .param("to", "xyz"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid currency code: XYZ")));
+        verifyNoInteractions(service);
+    }
+
     @Test
     void getExchangeRate_shouldReturnOk() throws Exception {
         RateResponse resp = new RateResponse("USD", "EUR", new BigDecimal("0.85"));
-        when(service.getExchangeRate(anyString(), anyString())).thenReturn(resp);
-        mockMvc.perform(get("/rate")
+        when(service.getExchangeRateAsync(anyString(), anyString())).thenReturn(Mono.just(resp));
+        MvcResult result = mockMvc.perform(get("/rate")
                 .param("from", "USD")
                 .param("to", "EUR")
                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.from", is("USD")))
                 .andExpect(jsonPath("$.to", is("EUR")))
                 .andExpect(jsonPath("$.rate", is(0.85)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getExchangeRates_shouldReturnRequestedTargets() throws Exception {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        rates.put("EUR", new BigDecimal("0.85"));
+        rates.put("GBP", new BigDecimal("0.75"));
+        when(service.getExchangeRatesAsync(eq("USD"), eq(new LinkedHashSet<>(List.of("EUR", "GBP")))))
+                .thenReturn(Mono.just(new RatesResponse("USD", 1700000001L, rates)));
+        MvcResult result = mockMvc.perform(get("/rates")
+                .param("from", "usd")
+                .param("to", "eur, GBP,eur"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from", is("USD")))
+                .andExpect(jsonPath("$.lastUpdated", is(1700000001)))
+                .andExpect(jsonPath("$.rates.EUR", is(0.85)))
+                .andExpect(jsonPath("$.rates.GBP", is(0.75)));
+    }
+
+    @Test
+    void getExchangeRates_shouldReturnAllRatesForWildcard() throws Exception {
+        when(service.getAllExchangeRatesAsync("USD"))
+                .thenReturn(Mono.just(new RatesResponse("USD", 1700000001L, Map.of("EUR", new BigDecimal("0.85")))));
+        MvcResult result = mockMvc.perform(get("/rates")
+                .param("from", "USD")
+                .param("to", "*"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rates.EUR", is(0.85)));
+    }
+
+    @Test
+    void getRateHistory_shouldReturnPoints() throws Exception {
+        when(service.getRateHistory("EUR", "GBP", 1000L, 2000L, 0L))
+                .thenReturn(new RateHistoryResponse("EUR", "GBP", 1000L, 2000L, 0L,
+                        List.of(new RatePoint(1000L, new BigDecimal("0.88")), new RatePoint(2000L, new BigDecimal("0.89")))));
+        mockMvc.perform(get("/rates/history")
+                .param("from", "eur")
+                .param("to", "gbp")
+                .param("start", "1000")
+                .param("end", "2000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points", hasSize(2)))
+                .andExpect(jsonPath("$.points[1].time", is(2000)))
+                .andExpect(jsonPath("$.points[1].rate", is(0.89)));
+    }
+
+    @Test
+    void getExchangeRate_shouldSendValidatorsAndAnswerMatchingEtagWithNotModified() throws Exception {
+        long nextUpdate = Instant.now().getEpochSecond() + 3600;
+        RateResponse resp = new RateResponse("USD", "EUR", new BigDecimal("0.85"), 1700000000L, nextUpdate, false);
+        when(service.getExchangeRateAsync("USD", "EUR")).thenReturn(Mono.just(resp));
+
+        MvcResult first = mockMvc.perform(get("/rate").param("from", "USD").param("to", "EUR"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(first))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"USD-EUR-1700000000\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", allOf(containsString("max-age="), containsString("private"))));
+
+        MvcResult second = mockMvc.perform(get("/rate").param("from", "USD").param("to", "EUR")
+                        .header("If-None-Match", "\"USD-EUR-1700000000\""))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(second))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+}
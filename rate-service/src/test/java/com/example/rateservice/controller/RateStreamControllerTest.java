@@ -0,0 +1,24 @@
+package com.example.rateservice.controller;
+
+import com.example.rateservice.service.RateUpdateBroadcaster;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateStreamControllerTest {
+
+    @Test
+    void streamRates_shouldOptOutOfAsyncTimeout() {
+        RateUpdateBroadcaster broadcaster = mock(RateUpdateBroadcaster.class);
+        when(broadcaster.stream()).thenReturn(Flux.never());
+        RateStreamController controller = new RateStreamController(broadcaster, 15);
+
+        SseEmitter emitter = controller.streamRates();
+
+        assertEquals(0L, emitter.getTimeout());
+        emitter.complete();
+    }
+}
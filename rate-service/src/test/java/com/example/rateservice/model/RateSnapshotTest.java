@@ -0,0 +1,41 @@
+package com.example.rateservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSnapshotTest {
+
+    @Test
+    void fromResponse_shouldStoreRatesAsFixedPointByOrdinal() {
+        ExchangeRateResponse response = new ExchangeRateResponse();
+        response.setBase_code("USD");
+        response.setTime_last_update_unix(1_000);
+        response.setTime_next_update_unix(2_000);
+        response.setConversion_rates(Map.of(
+                "EUR", new BigDecimal("0.9013"),
+                "IRR", new BigDecimal("42105.2631"),
+                "ZZZ", new BigDecimal("1.5")));
+
+        RateSnapshot snapshot = RateSnapshot.fromResponse(response);
+
+        assertEquals(9_013_000_000L, snapshot.scaledRate(CurrencyIndex.ordinalOf("EUR")));
+        assertEquals(RateSnapshot.ONE, snapshot.scaledRate(CurrencyIndex.ordinalOf("USD")));
+        assertEquals(new BigDecimal("42105.2631"), snapshot.rate("IRR"));
+        assertNull(snapshot.rate("GBP"));
+        assertFalse(snapshot.contains("ZZZ"));
+        assertEquals(3, snapshot.size());
+        assertEquals(2_000, snapshot.getTimeNextUpdateUnix());
+    }
+
+    @Test
+    void ordinalOf_shouldRejectMalformedCodes() {
+        assertEquals(-1, CurrencyIndex.ordinalOf("usd"));
+        assertEquals(-1, CurrencyIndex.ordinalOf("US"));
+        assertEquals(-1, CurrencyIndex.ordinalOf("ABC"));
+        assertEquals("USD", CurrencyIndex.codeOf(CurrencyIndex.ordinalOf("USD")));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.rateservice.provider;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeRateApiProviderTest {
+
+    private static final String USD_TABLE = "{\"result\":\"success\",\"time_last_update_unix\":1000,"
+            + "\"time_next_update_unix\":87400,\"base_code\":\"USD\",\"conversion_rates\":{\"USD\":1,\"EUR\":0.9}}";
+
+    private static WebClient observed(MeterRegistry meterRegistry, List<String> requestedUrls) {
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        return WebClient.builder()
+                .observationRegistry(observationRegistry)
+                .exchangeFunction(request -> {
+                    requestedUrls.add(request.url().toString());
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(USD_TABLE)
+                            .build());
+                })
+                .build();
+    }
+
+    private static List<String> uriTags(MeterRegistry meterRegistry) {
+        return meterRegistry.find("http.client.requests").meters().stream()
+                .map(Meter::getId)
+                .map(id -> id.getTag("uri"))
+                .toList();
+    }
+
+    @Test
+    void fetchLatest_shouldKeepApiKeyOutOfClientRequestMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        List<String> requestedUrls = new ArrayList<>();
+        RateProvider provider = new ExchangeRateApiProvider("test", observed(meterRegistry, requestedUrls),
+                "http://fake/v6", "secret-key");
+
+        provider.fetchLatest("USD").block();
+
+        assertEquals(List.of("http://fake/v6/secret-key/latest/USD"), requestedUrls);
+        List<String> uriTags = uriTags(meterRegistry);
+        assertFalse(uriTags.isEmpty());
+        assertTrue(uriTags.stream().noneMatch(tag -> tag.contains("secret-key") || tag.contains("USD")), uriTags::toString);
+    }
+
+    @Test
+    void fetchLatest_shouldRequestKeylessPathWithoutKey() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        List<String> requestedUrls = new ArrayList<>();
+        RateProvider provider = new ExchangeRateApiProvider("test", observed(meterRegistry, requestedUrls),
+                "http://fake/v6", null);
+
+        provider.fetchLatest("USD").block();
+
+        assertEquals(List.of("http://fake/v6/latest/USD"), requestedUrls);
+        assertTrue(uriTags(meterRegistry).stream().noneMatch(tag -> tag.contains("USD")));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.rateservice.provider;
+
+import com.example.rateservice.model.RateSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedRateProviderTest {
+
+    private static class StubProvider implements RateProvider {
+        private final String name;
+        private final Duration latency;
+        private final boolean fails;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubProvider(String name, Duration latency, boolean fails) {
+            this.name = name;
+            this.latency = latency;
+            this.fails = fails;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Mono<RateSnapshot> fetchLatest(String baseCurrency) {
+            return Mono.defer(() -> {
+                calls.incrementAndGet();
+                Mono<RateSnapshot> result = fails
+                        ? Mono.error(new IllegalStateException(name + " failed"))
+                        : Mono.just(RateSnapshot.builder(baseCurrency, 1_000, 2_000).build());
+                return result.delaySubscription(latency);
+            });
+        }
+    }
+
+    private static HedgedRateProvider hedged(StubProvider primary, StubProvider secondary, SimpleMeterRegistry registry) {
+        return new HedgedRateProvider(primary, secondary, registry, 16, 4, Duration.ofMillis(100), Duration.ofMillis(10));
+    }
+
+    @Test
+    void fetchLatest_shouldNotHedgeWhenPrimaryAnswersInTime() {
+        StubProvider primary = new StubProvider("primary", Duration.ofMillis(10), false);
+        StubProvider secondary = new StubProvider("secondary", Duration.ZERO, false);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        RateSnapshot snapshot = hedged(primary, secondary, registry).fetchLatest("USD").block(Duration.ofSeconds(5));
+
+        assertEquals("USD", snapshot.getBaseCode());
+        assertEquals(0, secondary.calls.get());
+        assertEquals(0, registry.counter("rate.fetch.hedges", "provider", "secondary").count());
+    }
+
+    @Test
+    void fetchLatest_shouldTakeSecondaryWhenPrimaryIsSlow() {
+        StubProvider primary = new StubProvider("primary", Duration.ofSeconds(3), false);
+        StubProvider secondary = new StubProvider("secondary", Duration.ofMillis(10), false);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        long started = System.nanoTime();
+        RateSnapshot snapshot = hedged(primary, secondary, registry).fetchLatest("USD").block(Duration.ofSeconds(5));
+
+        assertNotNull(snapshot);
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(1)) < 0);
+        assertEquals(1, registry.counter("rate.fetch.hedge.wins", "provider", "secondary").count());
+    }
+
+    @Test
+    void fetchLatest_shouldFailOverImmediatelyWhenPrimaryFails() {
+        StubProvider primary = new StubProvider("primary", Duration.ZERO, true);
+        StubProvider secondary = new StubProvider("secondary", Duration.ZERO, false);
+        HedgedRateProvider provider = new HedgedRateProvider(primary, secondary, new SimpleMeterRegistry(), 16, 4,
+                Duration.ofSeconds(10), Duration.ofSeconds(10));
+
+        RateSnapshot snapshot = provider.fetchLatest("USD").block(Duration.ofSeconds(5));
+
+        assertNotNull(snapshot);
+        assertEquals(1, secondary.calls.get());
+    }
+
+    @Test
+    void fetchLatest_shouldFailWhenBothProvidersFail() {
+        StubProvider primary = new StubProvider("primary", Duration.ZERO, true);
+        StubProvider secondary = new StubProvider("secondary", Duration.ZERO, true);
+
+        assertThrows(IllegalStateException.class,
+                () -> hedged(primary, secondary, new SimpleMeterRegistry()).fetchLatest("USD").block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void hedgeDelay_shouldFollowPrimaryP95OnceEnoughSamplesExist() {
+        StubProvider primary = new StubProvider("primary", Duration.ofMillis(30), false);
+        StubProvider secondary = new StubProvider("secondary", Duration.ofSeconds(3), false);
+        HedgedRateProvider provider = new HedgedRateProvider(primary, secondary, new SimpleMeterRegistry(), 16, 4,
+                Duration.ofSeconds(2), Duration.ofMillis(10));
+
+        assertEquals(Duration.ofSeconds(2), provider.hedgeDelay());
+        for (int i = 0; i < 4; i++) {
+            provider.fetchLatest("USD").block(Duration.ofSeconds(5));
+        }
+
+        Duration delay = provider.hedgeDelay();
+        assertTrue(delay.compareTo(Duration.ofMillis(30)) >= 0 && delay.compareTo(Duration.ofSeconds(1)) < 0, delay.toString());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.rateservice.provider;
+
+import com.example.rateservice.model.RateSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayExchangeFilterTest {
+
+    private static final String USD_TABLE = "{\"result\":\"success\",\"time_last_update_unix\":1000,"
+            + "\"time_next_update_unix\":87400,\"base_code\":\"USD\",\"conversion_rates\":{\"USD\":1,\"EUR\":0.9}}";
+
+    private static WebClient replaying(ReplayExchangeFilter filter) {
+        return WebClient.builder()
+                .exchangeFunction(request -> Mono.error(new AssertionError("replay must not reach the network")))
+                .filter(filter)
+                .build();
+    }
+
+    private static ReplayExchangeFilter filter(Path directory, double errorRate) {
+        return filter(directory, errorRate, false);
+    }
+
+    private static ReplayExchangeFilter filter(Path directory, double errorRate, boolean expireImmediately) {
+        return new ReplayExchangeFilter(directory, Duration.ZERO, 0, errorRate, HttpStatus.SERVICE_UNAVAILABLE, 16, true,
+                expireImmediately, Clock.fixed(Instant.ofEpochSecond(200_000), ZoneOffset.UTC));
+    }
+
+    @Test
+    void fetchLatest_shouldReplayRecordingWithShiftedTimestamps(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("latest-USD.json"), USD_TABLE);
+        RateProvider provider = new ExchangeRateApiProvider("replay", replaying(filter(directory, 0)), "http://fake", "key");
+
+        RateSnapshot snapshot = provider.fetchLatest("USD").block();
+
+        assertNotNull(snapshot);
+        assertEquals(0, new BigDecimal("0.9").compareTo(snapshot.rate("EUR")));
+        assertEquals(173_800, snapshot.getTimeLastUpdateUnix());
+        assertEquals(260_200, snapshot.getTimeNextUpdateUnix());
+    }
+
+    @Test
+    void fetchLatest_shouldReplayTableExpiringNowWhenExpiringImmediately(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("latest-USD.json"), USD_TABLE);
+        RateProvider provider = new ExchangeRateApiProvider("replay", replaying(filter(directory, 0, true)), "http://fake", "key");
+
+        RateSnapshot snapshot = provider.fetchLatest("USD").block();
+
+        assertNotNull(snapshot);
+        assertEquals(173_800, snapshot.getTimeLastUpdateUnix());
+        assertEquals(200_000, snapshot.getTimeNextUpdateUnix());
+    }
+
+    @Test
+    void fetchLatest_shouldFailForBaseWithoutRecording(@TempDir Path directory) {
+        RateProvider provider = new ExchangeRateApiProvider("replay", replaying(filter(directory, 0)), "http://fake", "key");
+
+        WebClientResponseException error = assertThrows(WebClientResponseException.class,
+                () -> provider.fetchLatest("GBP").block());
+        assertEquals(HttpStatus.NOT_FOUND, error.getStatusCode());
+    }
+
+    @Test
+    void fetchLatest_shouldPickUpRecordingAddedAfterMiss(@TempDir Path directory) throws IOException {
+        RateProvider provider = new ExchangeRateApiProvider("replay", replaying(filter(directory, 0)), "http://fake", "key");
+        assertThrows(WebClientResponseException.class, () -> provider.fetchLatest("USD").block());
+
+        Files.writeString(directory.resolve("latest-USD.json"), USD_TABLE);
+        RateSnapshot snapshot = provider.fetchLatest("USD").block();
+
+        assertNotNull(snapshot);
+        assertEquals(0, new BigDecimal("0.9").compareTo(snapshot.rate("EUR")));
+    }
+
+    @Test
+    void fetchLatest_shouldInjectErrors(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("latest-USD.json"), USD_TABLE);
+        RateProvider provider = new ExchangeRateApiProvider("replay", replaying(filter(directory, 1)), "http://fake", "key");
+
+        WebClientResponseException error = assertThrows(WebClientResponseException.class,
+                () -> provider.fetchLatest("USD").block());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatusCode());
+    }
+
+    @Test
+    void recordingFilter_shouldSaveSuccessfulResponses(@TempDir Path directory) throws IOException {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(USD_TABLE)
+                        .build()))
+                .filter(new RecordingExchangeFilter(directory.toString()))
+                .build();
+        RateProvider provider = new ExchangeRateApiProvider("recorded", webClient, "http://fake", "secret-key");
+
+        RateSnapshot snapshot = provider.fetchLatest("USD").block();
+
+        assertNotNull(snapshot);
+        assertEquals(USD_TABLE, Files.readString(directory.resolve("latest-USD.json")));
+    }
+}
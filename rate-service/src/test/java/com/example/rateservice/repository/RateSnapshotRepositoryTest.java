@@ -0,0 +1,29 @@
+package com.example.rateservice.repository;
+
+import com.example.rateservice.model.CurrencyIndex;
+import com.example.rateservice.model.RateSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSnapshotRepositoryTest {
+
+    @Test
+    void payload_shouldRoundTripSnapshot() {
+        RateSnapshot snapshot = RateSnapshot.builder("USD", 1_700_000_001L, 1_700_086_401L)
+                .rate("EUR", new BigDecimal("0.9013"))
+                .rate("IRR", new BigDecimal("42105.2631578947"))
+                .build();
+
+        RateSnapshot restored = RateSnapshotRepository.fromPayload(RateSnapshotRepository.toPayload(snapshot));
+
+        assertEquals("USD", restored.getBaseCode());
+        assertEquals(1_700_000_001L, restored.getTimeLastUpdateUnix());
+        assertEquals(1_700_086_401L, restored.getTimeNextUpdateUnix());
+        for (int ordinal = 0; ordinal < CurrencyIndex.size(); ordinal++) {
+            assertEquals(snapshot.scaledRate(ordinal), restored.scaledRate(ordinal), CurrencyIndex.codeOf(ordinal));
+        }
+    }
+}
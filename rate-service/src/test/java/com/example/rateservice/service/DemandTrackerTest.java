@@ -0,0 +1,69 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.PairDemand;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DemandTrackerTest {
+
+    @Test
+    void topPairs_shouldListHottestPairsFirst() {
+        DemandTracker tracker = new DemandTracker(1024, 4, 16);
+        for (int i = 0; i < 30; i++) {
+            tracker.recordPair("USD", "EUR");
+        }
+        for (int i = 0; i < 10; i++) {
+            tracker.recordPair("GBP", "JPY");
+        }
+        tracker.recordPair("CHF", "SEK");
+
+        List<PairDemand> top = tracker.topPairs(2);
+
+        assertEquals(2, top.size());
+        assertEquals("USD", top.get(0).getFrom());
+        assertEquals("EUR", top.get(0).getTo());
+        assertEquals(30, top.get(0).getRequests());
+        assertEquals("GBP", top.get(1).getFrom());
+        assertEquals(10, top.get(1).getRequests());
+    }
+
+    @Test
+    void topPairs_shouldKeepHotPairsWhenManyDistinctPairsAreRequested() {
+        DemandTracker tracker = new DemandTracker(1024, 4, 8);
+        for (int i = 0; i < 50; i++) {
+            tracker.recordPair("USD", "EUR");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            tracker.recordPair("X" + i, "YYY");
+        }
+
+        List<PairDemand> top = tracker.topPairs(1);
+
+        assertEquals("USD", top.get(0).getFrom());
+        assertTrue(top.get(0).getRequests() >= 50);
+    }
+
+    @Test
+    void decay_shouldHalveDemand() {
+        DemandTracker tracker = new DemandTracker(1024, 4, 16);
+        for (int i = 0; i < 8; i++) {
+            tracker.recordBase("USD");
+            tracker.recordPair("USD", "EUR");
+        }
+        tracker.recordBase("EUR");
+        tracker.recordBase("EUR");
+
+        tracker.decay();
+
+        assertEquals(4, tracker.topPairs(1).get(0).getRequests());
+        assertEquals(0.8, tracker.share("USD"), 1e-9);
+    }
+
+    @Test
+    void share_shouldBeZeroWithoutDemand() {
+        assertEquals(0.0, new DemandTracker(1024, 4, 16).share("USD"));
+    }
+}
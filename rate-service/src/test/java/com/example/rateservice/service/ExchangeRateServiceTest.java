@@ -1,38 +1,80 @@
 package com.example.rateservice.service;
 
-import com.example.rateservice.model.ExchangeRateResponse;
+import com.example.rateservice.exception.UpstreamUnavailableException;
+import com.example.rateservice.model.RateHistoryResponse;
 import com.example.rateservice.model.RateResponse;
+import com.example.rateservice.model.RateSnapshot;
+import com.example.rateservice.provider.ExchangeRateApiProvider;
+import com.example.rateservice.provider.RateProvider;
+import com.example.rateservice.model.RatesResponse;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.*;
+import static org.mockito.Mockito.mock;
 
-@SuppressWarnings({"rawtypes", "unchecked"})
 class ExchangeRateServiceTest {
+
+    private static String usdTable(long nextUpdate, String rates) {
+        return "{\"result\":\"success\",\"documentation\":\"https://www.exchangerate-api.com/docs\","
+                + "\"time_last_update_unix\":1700000000,\"time_next_update_unix\":" + nextUpdate + ","
+                + "\"base_code\":\"USD\",\"conversion_rates\":{\"USD\":1," + rates + "}}";
+    }
+
+    private static long inOneHour() {
+        return System.currentTimeMillis() / 1000 + 3600;
+    }
+
+    private static RateProvider provider(WebClient webClient) {
+        return new ExchangeRateApiProvider("test", webClient, "http://fake", "key");
+    }
+
+    private static ExchangeRateService service(WebClient webClient, RateTableCache cache) {
+        return new ExchangeRateService(provider(webClient), cache, new CircuitBreaker(5, 30, 1), new RateHistoryStore(128, 0), new DemandTracker(1024, 4, 16), event -> { },
+                5000, "USD", 12);
+    }
+
+    private static WebClient upstream(String body, List<String> requestedUrls, Duration latency) {
+        return upstream(HttpStatus.OK, body, requestedUrls, latency);
+    }
+
+    private static WebClient upstream(HttpStatus status, String body, List<String> requestedUrls, Duration latency) {
+        return WebClient.builder()
+                .exchangeFunction(request -> {
+                    requestedUrls.add(request.url().toString());
+                    return Mono.just(ClientResponse.create(status)
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .body(body)
+                                    .build())
+                            .delayElement(latency);
+                })
+                .build();
+    }
+
     @Test
     void getExchangeRate_shouldReturnRate() {
-        WebClient webClient = mock(WebClient.class, RETURNS_DEEP_STUBS);
-        ExchangeRateService service = new ExchangeRateService(webClient, "http://fake", "key");
-        ExchangeRateResponse apiResponse = new ExchangeRateResponse();
-        apiResponse.setBase_code("USD");
-        Map<String, BigDecimal> rates = new HashMap<>();
-        rates.put("EUR", new BigDecimal("0.85"));
-        apiResponse.setConversion_rates(rates);
-        WebClient.RequestHeadersUriSpec uriSpec = mock(WebClient.RequestHeadersUriSpec.class);
-        WebClient.RequestHeadersSpec headersSpec = mock(WebClient.RequestHeadersSpec.class);
-        WebClient.ResponseSpec responseSpec = mock(WebClient.ResponseSpec.class);
-        when(webClient.get()).thenReturn(uriSpec);
-        when(uriSpec.uri(anyString())).thenReturn(headersSpec);
-        when(headersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(ExchangeRateResponse.class)).thenReturn(Mono.just(apiResponse));
+        WebClient webClient = upstream(usdTable(0, "\"EUR\":0.85"), new CopyOnWriteArrayList<>(), Duration.ZERO);
+        ExchangeRateService service = service(webClient, new RateTableCache(Clock.systemUTC(), 0, 0));
         RateResponse result = service.getExchangeRate("USD", "EUR");
         assertEquals("USD", result.getFrom());
         assertEquals("EUR", result.getTo());
@@ -41,8 +83,166 @@ class ExchangeRateServiceTest {
 
     @Test
     void getExchangeRate_shouldThrowOnNullCurrency() {
-        ExchangeRateService service = new ExchangeRateService(mock(WebClient.class), "http://fake", "key");
+        ExchangeRateService service = service(mock(WebClient.class), new RateTableCache(Clock.systemUTC(), 0, 0));
         assertThrows(IllegalArgumentException.class, () -> service.getExchangeRate(null, "EUR"));
         assertThrows(IllegalArgumentException.class, () -> service.getExchangeRate("USD", null));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getExchangeRate_shouldServeSameBaseFromCacheUntilNextUpdate() {
+        List<String> requestedUrls = new CopyOnWriteArrayList<>();
+        WebClient webClient = upstream(usdTable(inOneHour(), "\"EUR\":0.85,\"GBP\":0.75"), requestedUrls, Duration.ZERO);
+        ExchangeRateService service = service(webClient, new RateTableCache(Clock.systemUTC(), 0, 0));
+        assertEquals(new BigDecimal("0.85"), service.getExchangeRate("USD", "EUR").getRate());
+        assertEquals(new BigDecimal("0.75"), service.getExchangeRate("USD", "GBP").getRate());
+        assertEquals(1, requestedUrls.size());
+    }
+
+    @Test
+    void getExchangeRate_shouldTriangulateThroughPivotTable() {
+        List<String> requestedUrls = new CopyOnWriteArrayList<>();
+        WebClient webClient = upstream(usdTable(inOneHour(), "\"EUR\":0.85,\"GBP\":0.75"), requestedUrls, Duration.ZERO);
+        ExchangeRateService service = service(webClient, new RateTableCache(Clock.systemUTC(), 0, 0));
+
+        RateResponse eurToGbp = service.getExchangeRate("EUR", "GBP");
+        RateResponse gbpToUsd = service.getExchangeRate("GBP", "USD");
+
+        assertEquals(0, new BigDecimal("0.882352941176").compareTo(eurToGbp.getRate()));
+        assertEquals(0, new BigDecimal("1.33333333333").compareTo(gbpToUsd.getRate()));
+        assertThrows(IllegalArgumentException.class, () -> service.getExchangeRate("EUR", "XXX"));
+        assertEquals(List.of("http://fake/key/latest/USD"), requestedUrls);
+    }
+
+    @Test
+    void getExchangeRates_shouldAnswerAllTargetsFromOneSnapshot() {
+        List<String> requestedUrls = new CopyOnWriteArrayList<>();
+        WebClient webClient = upstream(usdTable(inOneHour(), "\"EUR\":0.85,\"GBP\":0.75"), requestedUrls, Duration.ZERO);
+        ExchangeRateService service = service(webClient, new RateTableCache(Clock.systemUTC(), 0, 0));
+
+        RatesResponse selected = service.getExchangeRates("USD", List.of("EUR", "GBP"));
+        RatesResponse all = service.getAllExchangeRates("EUR");
+
+        assertEquals(new BigDecimal("0.85"), selected.getRates().get("EUR"));
+        assertEquals(new BigDecimal("0.75"), selected.getRates().get("GBP"));
+        assertEquals(1700000000L, selected.getLastUpdated());
+        assertEquals(3, all.getRates().size());
+        assertEquals(0, BigDecimal.ONE.compareTo(all.getRates().get("EUR")));
+        assertEquals(1, requestedUrls.size());
+    }
+
+    @Test
+    void getExchangeRate_shouldIssueOneUpstreamCallPerConcurrentBurst() throws Exception {
+        List<String> requestedUrls = new CopyOnWriteArrayList<>();
+        WebClient webClient = upstream(usdTable(inOneHour(), "\"EUR\":0.85"), requestedUrls, Duration.ofMillis(200));
+        ExchangeRateService service = service(webClient, new RateTableCache(Clock.systemUTC(), 0, 0));
+
+        int burst = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RateResponse>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < burst; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.getExchangeRate("USD", "EUR");
+                }));
+            }
+            start.countDown();
+            for (Future<RateResponse> result : results) {
+                assertEquals(new BigDecimal("0.85"), result.get().getRate());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, requestedUrls.size());
+    }
+
+    @Test
+    void getExchangeRate_shouldServeStaleTableWhileUpstreamIsDown() {
+        RateTableCache cache = new RateTableCache(Clock.systemUTC(), 0, 86_400);
+        long expired = System.currentTimeMillis() / 1000 - 60;
+        cache.put("USD", RateTableParser.parse(usdTable(expired, "\"EUR\":0.85").getBytes(StandardCharsets.UTF_8)));
+        List<String> requestedUrls = new CopyOnWriteArrayList<>();
+        WebClient webClient = upstream(HttpStatus.INTERNAL_SERVER_ERROR, "{}", requestedUrls, Duration.ZERO);
+        ExchangeRateService service = new ExchangeRateService(provider(webClient), cache, new CircuitBreaker(2, 30, 1), new RateHistoryStore(128, 0),
+                new DemandTracker(1024, 4, 16), event -> { }, 5000, "USD", 12);
+
+        for (int i = 0; i < 5; i++) {
+            RateResponse result = service.getExchangeRate("USD", "EUR");
+            assertEquals(new BigDecimal("0.85"), result.getRate());
+            assertTrue(result.isStale());
+            assertEquals(1700000000L, result.getLastUpdated());
+        }
+
+        // The breaker opened after two failures, so later requests never reached upstream
+        assertEquals(2, requestedUrls.size());
+    }
+
+    @Test
+    void getExchangeRate_shouldNotOpenCircuitWhenQuotaIsUsedUp() {
+        RateProvider exhausted = new RateProvider() {
+            @Override
+            public String name() {
+                return "exhausted";
+            }
+
+            @Override
+            public Mono<RateSnapshot> fetchLatest(String baseCurrency) {
+                return Mono.error(new IllegalStateException("Monthly quota of exhausted is used up"));
+            }
+        };
+        CircuitBreaker breaker = new CircuitBreaker(2, 30, 1);
+        ExchangeRateService service = new ExchangeRateService(exhausted, new RateTableCache(Clock.systemUTC(), 0, 0), breaker, new RateHistoryStore(128, 0),
+                new DemandTracker(1024, 4, 16), event -> { }, 5000, "USD", 12);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(UpstreamUnavailableException.class, () -> service.getExchangeRate("USD", "EUR"));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void isUpstreamFailure_shouldOnlyCountTransportErrorsTimeoutsAndServerErrors() {
+        assertTrue(ExchangeRateService.isUpstreamFailure(new TimeoutException()));
+        assertTrue(ExchangeRateService.isUpstreamFailure(
+                WebClientResponseException.create(503, "Service Unavailable", HttpHeaders.EMPTY, new byte[0], null)));
+        assertTrue(ExchangeRateService.isUpstreamFailure(
+                new IllegalStateException("No rate provider returned a table", new IOException("connection reset"))));
+        assertFalse(ExchangeRateService.isUpstreamFailure(
+                WebClientResponseException.create(404, "Not Found", HttpHeaders.EMPTY, new byte[0], null)));
+        assertFalse(ExchangeRateService.isUpstreamFailure(new IllegalArgumentException("Invalid currency code: XXX")));
+        assertFalse(ExchangeRateService.isUpstreamFailure(new IllegalStateException("Monthly quota of test is used up")));
+    }
+
+    @Test
+    void getExchangeRate_shouldFailFastWithoutStaleTableWhenUpstreamTimesOut() {
+        WebClient webClient = upstream(usdTable(inOneHour(), "\"EUR\":0.85"), new CopyOnWriteArrayList<>(), Duration.ofSeconds(10));
+        ExchangeRateService service = new ExchangeRateService(provider(webClient), new RateTableCache(Clock.systemUTC(), 0, 0), new CircuitBreaker(5, 30, 1), new RateHistoryStore(128, 0), new DemandTracker(1024, 4, 16), event -> { },
+                100, "USD", 12);
+
+        long started = System.nanoTime();
+        assertThrows(UpstreamUnavailableException.class, () -> service.getExchangeRate("USD", "EUR"));
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(5)) < 0);
+    }
+
+    @Test
+    void getRateHistory_shouldTriangulateAndKeepLastUpdatePerStep() {
+        RateHistoryStore history = new RateHistoryStore(128, 0);
+        history.record(RateSnapshot.builder("USD", 1_000, 2_000).rate("EUR", new BigDecimal("0.80")).rate("GBP", new BigDecimal("0.75")).build());
+        history.record(RateSnapshot.builder("USD", 1_500, 2_000).rate("EUR", new BigDecimal("0.85")).rate("GBP", new BigDecimal("0.75")).build());
+        history.record(RateSnapshot.builder("USD", 2_000, 3_000).rate("EUR", new BigDecimal("0.90")).rate("GBP", new BigDecimal("0.72")).build());
+        ExchangeRateService service = new ExchangeRateService(provider(mock(WebClient.class)), new RateTableCache(Clock.systemUTC(), 0, 0), new CircuitBreaker(5, 30, 1),
+                history, new DemandTracker(1024, 4, 16), event -> { }, 5000, "USD", 12);
+
+        RateHistoryResponse all = service.getRateHistory("EUR", "GBP", 1_000, 2_000, 0);
+        RateHistoryResponse stepped = service.getRateHistory("EUR", "GBP", 1_000, 2_000, 1_000);
+
+        assertEquals(List.of(1_000L, 1_500L, 2_000L), all.getPoints().stream().map(point -> point.getTime()).toList());
+        assertEquals(0, new BigDecimal("0.9375").compareTo(all.getPoints().get(0).getRate()));
+        assertEquals(0, new BigDecimal("0.8").compareTo(all.getPoints().get(2).getRate()));
+        assertEquals(List.of(1_500L, 2_000L), stepped.getPoints().stream().map(point -> point.getTime()).toList());
+        assertThrows(IllegalArgumentException.class, () -> service.getRateHistory("EUR", "GBP", 2_000, 1_000, 0));
+    }
+}
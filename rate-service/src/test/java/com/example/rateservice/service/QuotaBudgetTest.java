@@ -0,0 +1,58 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.repository.QuotaUsageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QuotaBudgetTest {
+
+    // Halfway through June 2024 (30 days)
+    private static final Clock MID_JUNE = Clock.fixed(Instant.parse("2024-06-16T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void mode_shouldFollowMonthlyPace() {
+        QuotaUsageRepository repository = mock(QuotaUsageRepository.class);
+        when(repository.findCalls("2024-06")).thenReturn(500L);
+        QuotaBudget budget = new QuotaBudget(repository, new SimpleMeterRegistry(), MID_JUNE, 1_000, 0.05);
+
+        assertEquals(QuotaBudget.Mode.NORMAL, budget.mode());
+        budget.run(null);
+        assertEquals(500, budget.getUsed());
+        assertEquals(QuotaBudget.Mode.NORMAL, budget.mode());
+
+        for (int i = 0; i < 60; i++) {
+            assertTrue(budget.tryConsume());
+        }
+        assertEquals(QuotaBudget.Mode.CONSERVE, budget.mode());
+    }
+
+    @Test
+    void tryConsume_shouldRefuseCallsOnceBudgetIsUsedUp() {
+        QuotaUsageRepository repository = mock(QuotaUsageRepository.class);
+        when(repository.findCalls("2024-06")).thenReturn(999L);
+        QuotaBudget budget = new QuotaBudget(repository, new SimpleMeterRegistry(), MID_JUNE, 1_000, 0.05);
+        budget.run(null);
+
+        assertTrue(budget.tryConsume());
+        assertFalse(budget.tryConsume());
+        assertEquals(QuotaBudget.Mode.EXHAUSTED, budget.mode());
+        verify(repository, timeout(1_000)).increment("2024-06", 1);
+    }
+
+    @Test
+    void mode_shouldStayNormalWithoutBudget() {
+        QuotaBudget budget = new QuotaBudget(mock(QuotaUsageRepository.class), new SimpleMeterRegistry(), MID_JUNE, 0, 0.05);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(budget.tryConsume());
+        }
+        assertEquals(QuotaBudget.Mode.NORMAL, budget.mode());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.CurrencyIndex;
+import com.example.rateservice.model.RateSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateHistoryStoreTest {
+
+    private static final Clock NOW = Clock.fixed(Instant.ofEpochSecond(1_000_000), ZoneOffset.UTC);
+    private static final int USD = CurrencyIndex.ordinalOf("USD");
+    private static final int EUR = CurrencyIndex.ordinalOf("EUR");
+    private static final int GBP = CurrencyIndex.ordinalOf("GBP");
+
+    private static RateSnapshot table(long time, String eur) {
+        return RateSnapshot.builder("USD", time, time + 3_600).rate("EUR", new BigDecimal(eur)).build();
+    }
+
+    @Test
+    void pairHistory_shouldRoundTripPointsAcrossChunks() {
+        RateHistoryStore store = new RateHistoryStore(NOW, 4, 0);
+        String[] rates = {"0.85", "0.8512345678", "0.84", "1.2", "0.0000000001", "0.9", "0.9", "123456.789", "0.85", "0.86"};
+        for (int i = 0; i < rates.length; i++) {
+            store.record(table(10_000 + i * 3_600L, rates[i]));
+        }
+
+        RateHistoryStore.PairPoints history = store.pairHistory("USD", USD, EUR, 0, Long.MAX_VALUE);
+
+        assertEquals(rates.length, history.size());
+        for (int i = 0; i < rates.length; i++) {
+            assertEquals(10_000 + i * 3_600L, history.times()[i]);
+            assertEquals(RateSnapshot.ONE, history.fromRates()[i]);
+            assertEquals(new BigDecimal(rates[i]).movePointRight(RateSnapshot.SCALE).longValueExact(), history.toRates()[i]);
+        }
+    }
+
+    @Test
+    void pairHistory_shouldReturnOnlyPointsInRangeAndIgnoreOutOfOrderUpdates() {
+        RateHistoryStore store = new RateHistoryStore(NOW, 2, 0);
+        for (int i = 0; i < 10; i++) {
+            store.record(table(1_000 * (i + 1), "0.8" + i));
+        }
+        store.record(table(5_500, "0.5"));
+
+        RateHistoryStore.PairPoints history = store.pairHistory("USD", EUR, USD, 3_000, 6_000);
+
+        assertArrayEquals(new long[] {3_000, 4_000, 5_000, 6_000}, history.times());
+        assertEquals(0, store.pairHistory("USD", EUR, GBP, 0, Long.MAX_VALUE).size());
+        assertEquals(0, store.pairHistory("EUR", EUR, USD, 0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    void rebuild_shouldKeepPointsRecordedLive() {
+        RateHistoryStore store = new RateHistoryStore(NOW, 128, 0);
+        store.record(table(3_000, "0.87"));
+
+        store.rebuild((since, action) -> {
+            action.accept(table(1_000, "0.85"));
+            action.accept(table(2_000, "0.86"));
+        });
+
+        assertArrayEquals(new long[] {1_000, 2_000, 3_000}, store.pairHistory("USD", USD, EUR, 0, Long.MAX_VALUE).times());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.RateSnapshot;
+import com.example.rateservice.repository.QuotaUsageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateRefreshSchedulerTest {
+
+    private static final Clock NOW = Clock.fixed(Instant.ofEpochSecond(10_000), ZoneOffset.UTC);
+
+    private static RateSnapshot table(String base, long nextUpdate) {
+        return RateSnapshot.builder(base, 0, nextUpdate).build();
+    }
+
+    private static QuotaBudget unlimited(SimpleMeterRegistry registry) {
+        return new QuotaBudget(mock(QuotaUsageRepository.class), registry, NOW, 0, 0.05);
+    }
+
+    @Test
+    void refreshDueTables_shouldOnlyRefreshTablesWithinLeadTime() {
+        ExchangeRateService service = mock(ExchangeRateService.class);
+        when(service.refreshRateTable("USD")).thenReturn(table("USD", 96_400));
+        RateTableCache cache = new RateTableCache(NOW, 0, 0);
+        cache.put("USD", table("USD", 10_020));
+        cache.put("EUR", table("EUR", 20_000));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateRefreshScheduler scheduler = new RateRefreshScheduler(service, cache, unlimited(registry), new DemandTracker(1024, 4, 16), Runnable::run, registry, NOW, 30, 0, 15, 0.1, 10);
+
+        scheduler.refreshDueTables();
+
+        verify(service).refreshRateTable("USD");
+        verify(service, never()).refreshRateTable("EUR");
+        assertEquals(1, registry.get("rate.refresh.lag").timer().count());
+    }
+
+    @Test
+    void refreshDueTables_shouldWaitForRetryIntervalBeforeTryingAgain() {
+        ExchangeRateService service = mock(ExchangeRateService.class);
+        when(service.refreshRateTable("USD")).thenThrow(new RuntimeException("upstream down"));
+        RateTableCache cache = new RateTableCache(NOW, 0, 0);
+        cache.put("USD", table("USD", 10_020));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateRefreshScheduler scheduler = new RateRefreshScheduler(service, cache, unlimited(registry), new DemandTracker(1024, 4, 16), Runnable::run, registry, NOW, 30, 0, 15, 0.1, 10);
+
+        scheduler.refreshDueTables();
+        scheduler.refreshDueTables();
+
+        verify(service, times(1)).refreshRateTable("USD");
+        assertEquals(1.0, registry.get("rate.refresh.failures").counter().count());
+    }
+
+    @Test
+    void refreshDueTables_shouldCountRejectionsWhenPoolIsSaturated() {
+        ExchangeRateService service = mock(ExchangeRateService.class);
+        RateTableCache cache = new RateTableCache(NOW, 0, 0);
+        cache.put("USD", table("USD", 10_020));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateRefreshScheduler scheduler = new RateRefreshScheduler(service, cache, unlimited(registry), new DemandTracker(1024, 4, 16), task -> {
+            throw new RejectedExecutionException("full");
+        }, registry, NOW, 30, 0, 15, 0.1, 10);
+
+        scheduler.refreshDueTables();
+
+        verifyNoInteractions(service);
+        assertEquals(1.0, registry.get("rate.refresh.rejections").counter().count());
+    }
+
+    @Test
+    void refreshDueTables_shouldOnlyRefreshHotBasesWhileConservingQuota() {
+        ExchangeRateService service = mock(ExchangeRateService.class);
+        when(service.refreshRateTable("USD")).thenReturn(table("USD", 96_400));
+        RateTableCache cache = new RateTableCache(NOW, 0, 0);
+        cache.put("USD", table("USD", 10_020));
+        cache.put("EUR", table("EUR", 10_020));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        QuotaBudget quota = new QuotaBudget(mock(QuotaUsageRepository.class), registry, NOW, 100, 0.05);
+        for (int i = 0; i < 10; i++) {
+            quota.tryConsume();
+        }
+        DemandTracker demand = new DemandTracker(1024, 4, 16);
+        for (int i = 0; i < 50; i++) {
+            demand.recordBase("USD");
+        }
+        demand.recordBase("EUR");
+        RateRefreshScheduler scheduler = new RateRefreshScheduler(service, cache, quota, demand, Runnable::run, registry, NOW, 30, 0, 15, 0.1, 10);
+
+        scheduler.refreshDueTables();
+
+        assertEquals(QuotaBudget.Mode.CONSERVE, quota.mode());
+        verify(service).refreshRateTable("USD");
+        verify(service, never()).refreshRateTable("EUR");
+        assertEquals(1.0, registry.get("rate.refresh.deferrals").counter().count());
+    }
+
+    @Test
+    void refreshDueTables_shouldPrefetchBaseOfHotPairWithoutCachedTable() {
+        ExchangeRateService service = mock(ExchangeRateService.class);
+        when(service.baseFor("GBP")).thenReturn("GBP");
+        when(service.refreshRateTable("GBP")).thenReturn(table("GBP", 96_400));
+        RateTableCache cache = new RateTableCache(NOW, 0, 0);
+        DemandTracker demand = new DemandTracker(1024, 4, 16);
+        demand.recordPair("GBP", "JPY");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateRefreshScheduler scheduler = new RateRefreshScheduler(service, cache, unlimited(registry), demand, Runnable::run, registry, NOW, 30, 0, 15, 0.1, 10);
+
+        scheduler.refreshDueTables();
+        scheduler.refreshDueTables();
+
+        verify(service, times(1)).refreshRateTable("GBP");
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.CurrencyIndex;
+import com.example.rateservice.model.RateSnapshot;
+import com.example.rateservice.repository.RateSnapshotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateSnapshotStoreTest {
+
+    private static final Clock NOW = Clock.fixed(Instant.ofEpochSecond(10_000), ZoneOffset.UTC);
+
+    @Test
+    void run_shouldWarmCacheWithPersistedSnapshots() {
+        RateSnapshotRepository repository = mock(RateSnapshotRepository.class);
+        RateSnapshot usd = RateSnapshot.builder("USD", 9_000, 20_000).build();
+        when(repository.findLatestValid(10_000)).thenReturn(List.of(usd));
+        RateTableCache cache = new RateTableCache(NOW, 0, 0);
+
+        new RateSnapshotStore(repository, cache, new RateHistoryStore(NOW, 128, 0), NOW).run(null);
+
+        assertSame(usd, cache.get("USD"));
+    }
+
+    @Test
+    void run_shouldStartColdWhenDatabaseIsUnavailable() {
+        RateSnapshotRepository repository = mock(RateSnapshotRepository.class);
+        when(repository.findLatestValid(anyLong())).thenThrow(new DataAccessResourceFailureException("down"));
+        RateTableCache cache = new RateTableCache(NOW, 0, 0);
+
+        assertDoesNotThrow(() -> new RateSnapshotStore(repository, cache, new RateHistoryStore(NOW, 128, 0), NOW).run(null));
+        assertTrue(cache.entries().isEmpty());
+    }
+
+    @Test
+    void run_shouldRebuildHistoryFromPersistedSnapshots() {
+        RateSnapshotRepository repository = mock(RateSnapshotRepository.class);
+        RateSnapshot older = RateSnapshot.builder("USD", 8_000, 9_000).rate("EUR", new BigDecimal("0.85")).build();
+        RateSnapshot newer = RateSnapshot.builder("USD", 9_000, 20_000).rate("EUR", new BigDecimal("0.86")).build();
+        doAnswer(invocation -> {
+            Consumer<RateSnapshot> action = invocation.getArgument(1);
+            action.accept(older);
+            action.accept(newer);
+            return null;
+        }).when(repository).forEachSince(anyLong(), any());
+        RateHistoryStore history = new RateHistoryStore(NOW, 128, 0);
+
+        new RateSnapshotStore(repository, new RateTableCache(NOW, 0, 0), history, NOW).run(null);
+
+        assertEquals(2, history.pairHistory("USD", CurrencyIndex.ordinalOf("USD"), CurrencyIndex.ordinalOf("EUR"), 0, 10_000).size());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.RateSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateTableCacheTest {
+
+    private static RateSnapshot table(long nextUpdate) {
+        return RateSnapshot.builder("USD", 0, nextUpdate).build();
+    }
+
+    @Test
+    void get_shouldReturnTableBeforeNextUpdate() {
+        RateTableCache cache = new RateTableCache(Clock.fixed(Instant.ofEpochSecond(1_000), ZoneOffset.UTC), 0, 0);
+        RateSnapshot response = table(2_000);
+        cache.put("USD", response);
+        assertSame(response, cache.get("USD"));
+    }
+
+    @Test
+    void get_shouldReturnNullOnceNextUpdateHasPassed() {
+        RateTableCache cache = new RateTableCache(Clock.fixed(Instant.ofEpochSecond(2_000), ZoneOffset.UTC), 0, 0);
+        cache.put("USD", table(2_000));
+        assertNull(cache.get("USD"));
+        assertNull(cache.get("EUR"));
+    }
+
+    @Test
+    void get_shouldKeepServingTableDuringGracePeriod() {
+        RateTableCache cache = new RateTableCache(Clock.fixed(Instant.ofEpochSecond(2_030), ZoneOffset.UTC), 60, 0);
+        RateSnapshot response = table(2_000);
+        cache.put("USD", response);
+        assertSame(response, cache.get("USD"));
+        assertEquals(1, cache.entries().size());
+    }
+
+    @Test
+    void getStale_shouldReturnExpiredTableUntilMaxStaleness() {
+        RateTableCache cache = new RateTableCache(Clock.fixed(Instant.ofEpochSecond(2_500), ZoneOffset.UTC), 0, 1_000);
+        RateSnapshot response = table(2_000);
+        cache.put("USD", response);
+        assertNull(cache.get("USD"));
+        assertSame(response, cache.getStale("USD"));
+        assertTrue(cache.isStale(response));
+
+        RateTableCache later = new RateTableCache(Clock.fixed(Instant.ofEpochSecond(3_000), ZoneOffset.UTC), 0, 1_000);
+        later.put("USD", response);
+        assertNull(later.getStale("USD"));
+    }
+
+    @Test
+    void put_shouldKeepStableTablePastNextUpdate() {
+        RateTableCache cache = new RateTableCache(Clock.fixed(Instant.ofEpochSecond(180_000), ZoneOffset.UTC), 0, 1_000_000,
+                172_800, 0.002, 5, 0.5);
+        cache.put("USD", RateSnapshot.builder("USD", 0, 86_400).rate("EUR", new BigDecimal("0.9")).build());
+        RateSnapshot current = RateSnapshot.builder("USD", 86_400, 172_800).rate("EUR", new BigDecimal("0.9")).build();
+        cache.put("USD", current);
+
+        assertEquals(259_200, cache.expiresAt(current));
+        assertSame(current, cache.get("USD"));
+        assertFalse(cache.isStale(current));
+    }
+
+    @Test
+    void put_shouldFollowUpstreamScheduleForVolatileTable() {
+        RateTableCache cache = new RateTableCache(Clock.fixed(Instant.ofEpochSecond(180_000), ZoneOffset.UTC), 0, 1_000_000,
+                172_800, 0.002, 5, 0.5);
+        cache.put("USD", RateSnapshot.builder("USD", 0, 86_400).rate("EUR", new BigDecimal("0.9")).build());
+        RateSnapshot current = RateSnapshot.builder("USD", 86_400, 172_800).rate("EUR", new BigDecimal("0.99")).build();
+        cache.put("USD", current);
+
+        assertEquals(172_800, cache.expiresAt(current));
+        assertNull(cache.get("USD"));
+        assertTrue(cache.isStale(current));
+    }
+
+    @Test
+    void put_shouldLetOneVolatileCurrencyCapTheTtl() {
+        RateTableCache cache = new RateTableCache(Clock.fixed(Instant.ofEpochSecond(180_000), ZoneOffset.UTC), 0, 1_000_000,
+                172_800, 0.002, 5, 1.0);
+        cache.put("USD", RateSnapshot.builder("USD", 0, 86_400)
+                .rate("EUR", new BigDecimal("0.9")).rate("GBP", new BigDecimal("0.8")).rate("TRY", new BigDecimal("30"))
+                .build());
+        RateSnapshot current = RateSnapshot.builder("USD", 86_400, 172_800)
+                .rate("EUR", new BigDecimal("0.9")).rate("GBP", new BigDecimal("0.8")).rate("TRY", new BigDecimal("33"))
+                .build();
+        cache.put("USD", current);
+
+        assertEquals(172_800, cache.expiresAt(current));
+        assertNull(cache.get("USD"));
+    }
+}
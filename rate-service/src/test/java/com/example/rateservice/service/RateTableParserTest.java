@@ -0,0 +1,73 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.CurrencyIndex;
+import com.example.rateservice.model.ExchangeRateResponse;
+import com.example.rateservice.model.RateSnapshot;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateTableParserTest {
+
+    private static final String PAYLOAD = "{\"result\":\"success\","
+            + "\"documentation\":\"https://www.exchangerate-api.com/docs\","
+            + "\"terms_of_use\":\"https://www.exchangerate-api.com/terms\","
+            + "\"time_last_update_unix\":1700000001,\"time_last_update_utc\":\"Wed, 15 Nov 2023 00:00:01 +0000\","
+            + "\"time_next_update_unix\":1700086401,\"time_next_update_utc\":\"Thu, 16 Nov 2023 00:00:01 +0000\","
+            + "\"extra\":{\"nested\":[1,2,{\"deep\":true}]},"
+            + "\"base_code\":\"USD\","
+            + "\"conversion_rates\":{\"USD\":1,\"EUR\":0.9013,\"JPY\":151.2345,\"IRR\":42105.263157894736,"
+            + "\"KWD\":3.07E-1,\"QQQ\":5}}";
+
+    @Test
+    void parse_shouldDecodeRatesAcrossArbitraryChunkBoundaries() {
+        byte[] bytes = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> chunks = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += 7) {
+            int end = Math.min(bytes.length, i + 7);
+            byte[] chunk = new byte[end - i];
+            System.arraycopy(bytes, i, chunk, 0, chunk.length);
+            chunks.add(DefaultDataBufferFactory.sharedInstance.wrap(chunk));
+        }
+
+        RateSnapshot snapshot = RateTableParser.parse(Flux.fromIterable(chunks)).block();
+
+        assertNotNull(snapshot);
+        assertEquals("USD", snapshot.getBaseCode());
+        assertEquals(1700000001L, snapshot.getTimeLastUpdateUnix());
+        assertEquals(1700086401L, snapshot.getTimeNextUpdateUnix());
+        assertEquals(9_013_000_000L, snapshot.scaledRate(CurrencyIndex.ordinalOf("EUR")));
+        assertEquals(new BigDecimal("151.2345"), snapshot.rate("JPY"));
+        assertEquals(new BigDecimal("42105.2631578947"), snapshot.rate("IRR"));
+        assertEquals(new BigDecimal("0.307"), snapshot.rate("KWD"));
+        assertEquals(5, snapshot.size());
+    }
+
+    @Test
+    void parse_shouldMatchDatabindPath() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        RateSnapshot expected = RateSnapshot.fromResponse(mapper.readValue(PAYLOAD, ExchangeRateResponse.class));
+        RateSnapshot actual = RateTableParser.parse(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+
+        for (int ordinal = 0; ordinal < CurrencyIndex.size(); ordinal++) {
+            assertEquals(expected.scaledRate(ordinal), actual.scaledRate(ordinal), CurrencyIndex.codeOf(ordinal));
+        }
+    }
+
+    @Test
+    void parse_shouldRejectUpstreamErrorPayload() {
+        byte[] error = "{\"result\":\"error\",\"error-type\":\"unsupported-code\"}".getBytes(StandardCharsets.UTF_8);
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> RateTableParser.parse(error));
+        assertTrue(ex.getMessage().contains("unsupported-code"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.model.RateDelta;
+import com.example.rateservice.model.RateSnapshot;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateUpdateBroadcasterTest {
+
+    private static final Clock NOW = Clock.fixed(Instant.ofEpochSecond(1_000), ZoneOffset.UTC);
+
+    private static RateSnapshot table(long lastUpdate, String eur, String gbp) {
+        return RateSnapshot.builder("USD", lastUpdate, lastUpdate + 3_600)
+                .rate("EUR", new BigDecimal(eur))
+                .rate("GBP", new BigDecimal(gbp))
+                .build();
+    }
+
+    @Test
+    void stream_shouldSendCachedTablesInFullThenOnlyChangedRates() {
+        RateTableCache cache = new RateTableCache(NOW, 0, 0);
+        RateSnapshot first = table(900, "0.85", "0.75");
+        cache.put("USD", first);
+        RateUpdateBroadcaster broadcaster = new RateUpdateBroadcaster(cache);
+        broadcaster.onRateTableUpdated(new RateTableUpdatedEvent(first));
+
+        StepVerifier.create(broadcaster.stream())
+                .assertNext(delta -> {
+                    assertTrue(delta.isFull());
+                    assertEquals(1, delta.getSequence());
+                    assertEquals(Map.of("USD", BigDecimal.ONE, "EUR", new BigDecimal("0.85"), "GBP", new BigDecimal("0.75")), delta.getRates());
+                })
+                .then(() -> broadcaster.onRateTableUpdated(new RateTableUpdatedEvent(table(950, "0.86", "0.75"))))
+                .assertNext(delta -> {
+                    assertFalse(delta.isFull());
+                    assertEquals(2, delta.getSequence());
+                    assertEquals(1, delta.getPreviousSequence());
+                    assertEquals(950, delta.getLastUpdated());
+                    assertEquals(4_550, delta.getNextUpdate());
+                    assertEquals(Map.of("EUR", new BigDecimal("0.86")), delta.getRates());
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void stream_shouldReportCacheExpiryOfStableTableAsNextUpdate() {
+        RateTableCache cache = new RateTableCache(Clock.fixed(Instant.ofEpochSecond(180_000), ZoneOffset.UTC), 0, 1_000_000,
+                172_800, 0.002, 5, 1.0);
+        cache.put("USD", RateSnapshot.builder("USD", 0, 86_400).rate("EUR", new BigDecimal("0.9")).build());
+        RateSnapshot current = RateSnapshot.builder("USD", 86_400, 172_800).rate("EUR", new BigDecimal("0.9")).build();
+        cache.put("USD", current);
+        RateUpdateBroadcaster broadcaster = new RateUpdateBroadcaster(cache);
+        broadcaster.onRateTableUpdated(new RateTableUpdatedEvent(current));
+
+        StepVerifier.create(broadcaster.stream())
+                .assertNext(delta -> assertEquals(259_200, delta.getNextUpdate()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void between_shouldSendFullTableWhenCurrencyDisappears() {
+        RateSnapshot previous = table(900, "0.85", "0.75");
+        RateSnapshot current = RateSnapshot.builder("USD", 950, 4_550).rate("EUR", new BigDecimal("0.85")).build();
+
+        RateDelta delta = RateDelta.between(previous, current);
+
+        assertTrue(delta.isFull());
+        assertEquals(Map.of("USD", BigDecimal.ONE, "EUR", new BigDecimal("0.85")), delta.getRates());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.rateservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void execute_shouldShareInFlightLoadBetweenCallers() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.execute("USD", () -> {
+            loads.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> second = singleFlight.execute("USD", () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        upstream.complete("table");
+
+        assertEquals("table", first.join());
+        assertEquals("table", second.join());
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void execute_shouldPropagateFailureAndAllowRetry() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        CompletableFuture<String> failed = singleFlight.execute("USD",
+                () -> CompletableFuture.failedFuture(new IllegalStateException("upstream down")));
+        CompletionException error = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+
+        assertEquals("table", singleFlight.execute("USD", () -> CompletableFuture.completedFuture("table")).join());
+    }
+
+    @Test
+    void execute_shouldNotLetOneCallerCancelTheSharedLoad() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.execute("USD", () -> upstream);
+        CompletableFuture<String> second = singleFlight.execute("USD", () -> upstream);
+        first.cancel(true);
+        upstream.complete("table");
+
+        assertEquals("table", second.join());
+    }
+}
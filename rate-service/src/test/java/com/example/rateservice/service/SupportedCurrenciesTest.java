@@ -0,0 +1,100 @@
+package com.example.rateservice.service;
+
+import com.example.rateservice.repository.QuotaUsageRepository;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class SupportedCurrenciesTest {
+
+    private static WebClient upstream(HttpStatus status, String body, List<String> requestedUrls) {
+        return WebClient.builder()
+                .exchangeFunction(request -> {
+                    requestedUrls.add(request.url().toString());
+                    return Mono.just(ClientResponse.create(status)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(body)
+                            .build());
+                })
+                .build();
+    }
+
+    private static QuotaBudget unlimited() {
+        return new QuotaBudget(mock(QuotaUsageRepository.class), new SimpleMeterRegistry(), Clock.systemUTC(), 0, 0.05);
+    }
+
+    @Test
+    void isSupported_shouldAcceptEveryKnownCodeBeforeFirstLoad() {
+        SupportedCurrencies currencies = new SupportedCurrencies(mock(WebClient.class), unlimited(), "http://fake", "key", 1000);
+
+        assertTrue(currencies.isSupported("USD"));
+        assertTrue(currencies.isSupported("ZWL"));
+        assertFalse(currencies.isSupported("XYZ"));
+        assertFalse(currencies.isSupported("usd"));
+        assertFalse(currencies.isSupported(null));
+    }
+
+    @Test
+    void refresh_shouldOnlyAcceptCodesListedByUpstream() {
+        List<String> requestedUrls = new ArrayList<>();
+        WebClient webClient = upstream(HttpStatus.OK,
+                "{\"result\":\"success\",\"supported_codes\":[[\"USD\",\"United States Dollar\"],[\"EUR\",\"Euro\"]]}",
+                requestedUrls);
+        SupportedCurrencies currencies = new SupportedCurrencies(webClient, unlimited(), "http://fake", "key", 1000);
+
+        currencies.refresh();
+
+        assertEquals(List.of("http://fake/key/codes"), requestedUrls);
+        assertTrue(currencies.isSupported("USD"));
+        assertTrue(currencies.isSupported("EUR"));
+        assertFalse(currencies.isSupported("GBP"));
+    }
+
+    @Test
+    void refresh_shouldKeepCurrentCodesWhenUpstreamFails() {
+        WebClient webClient = upstream(HttpStatus.INTERNAL_SERVER_ERROR, "{}", new ArrayList<>());
+        SupportedCurrencies currencies = new SupportedCurrencies(webClient, unlimited(), "http://fake", "key", 1000);
+
+        currencies.refresh();
+
+        assertTrue(currencies.isSupported("GBP"));
+    }
+
+    @Test
+    void refresh_shouldKeepApiKeyOutOfClientRequestMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        WebClient webClient = upstream(HttpStatus.OK,
+                "{\"result\":\"success\",\"supported_codes\":[[\"USD\",\"United States Dollar\"]]}",
+                new ArrayList<>())
+                .mutate()
+                .observationRegistry(observationRegistry)
+                .build();
+        SupportedCurrencies currencies = new SupportedCurrencies(webClient, unlimited(), "http://fake", "secret-key", 1000);
+
+        currencies.refresh();
+
+        List<String> uriTags = meterRegistry.find("http.client.requests").meters().stream()
+                .map(Meter::getId)
+                .map(id -> id.getTag("uri"))
+                .toList();
+        assertFalse(uriTags.isEmpty());
+        assertTrue(uriTags.stream().noneMatch(tag -> tag.contains("secret-key")), uriTags::toString);
+    }
+}